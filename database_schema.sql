@@ -2,40 +2,14 @@
 CREATE DATABASE IF NOT EXISTS hotel_db;
 USE hotel_db;
 
--- Drop tables if they exist
+-- Drop tables if they exist (the application recreates them on startup)
+DROP TABLE IF EXISTS flyway_schema_history;
+DROP TABLE IF EXISTS room_night;
+DROP TABLE IF EXISTS nightly_rate;
 DROP TABLE IF EXISTS reservation;
 DROP TABLE IF EXISTS hotel_room;
 DROP TABLE IF EXISTS user_info;
+DROP TABLE IF EXISTS id_generator;
 
--- Create hotel_room table
-CREATE TABLE hotel_room (
-                            id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                            room_number VARCHAR(10) NOT NULL,
-                            category VARCHAR(20) NOT NULL,
-                            available BOOLEAN NOT NULL,
-                            price_per_night DOUBLE NOT NULL
-);
-
--- Create reservation table
-CREATE TABLE reservation (
-                             id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                             customer_name VARCHAR(100) NOT NULL,
-                             room_id BIGINT NOT NULL,
-                             check_in_date DATE NOT NULL,
-                             check_out_date DATE NOT NULL,
-                             payment_status BOOLEAN NOT NULL,
-                             CONSTRAINT fk_reservation_room
-                                 FOREIGN KEY (room_id)
-                                     REFERENCES hotel_room(id)
-                                     ON DELETE RESTRICT
-                                     ON UPDATE CASCADE
-);
-
--- Create user_info table
-CREATE TABLE user_info (
-                           id BIGINT AUTO_INCREMENT PRIMARY KEY,
-                           name VARCHAR(100) NOT NULL,
-                           email VARCHAR(100) NOT NULL UNIQUE,
-                           password VARCHAR(255) NOT NULL,
-                           roles VARCHAR(50) NOT NULL
-);
+-- The tables themselves are created and upgraded by Flyway when the application starts:
+-- see src/main/resources/db/migration (V1__baseline.sql holds the original schema).
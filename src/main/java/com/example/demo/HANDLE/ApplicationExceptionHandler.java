@@ -2,6 +2,7 @@ package com.example.demo.HANDLE;
 
 
 
+import com.example.demo.exception.ReservationConflictException;
 import com.example.demo.exception.TaskNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,4 +38,14 @@ public class ApplicationExceptionHandler {
         return errorMap;
     }
 
+
+    //CONFLICT=409
+    @ResponseStatus(HttpStatus.CONFLICT)
+    @ExceptionHandler(ReservationConflictException.class)
+    public Map<String, String> handleReservationConflict(ReservationConflictException ex) {
+        Map<String, String> errorMap = new HashMap<>();
+        errorMap.put("error", ex.getMessage());
+        return errorMap;
+    }
+
 }
\ No newline at end of file
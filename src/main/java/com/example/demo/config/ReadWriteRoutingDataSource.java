@@ -0,0 +1,39 @@
+package com.example.demo.config;
+
+import com.example.demo.service.ReadYourWritesWindow;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary. Spring Data
+ * repository reads are read-only transactions unless they join a read-write one, so only work
+ * that runs in a read-write transaction (every write, and the reads a write depends on) is
+ * guaranteed to see the primary.
+ *
+ * The decision is taken when the transaction's first statement asks for a connection, which is
+ * why this sits behind a LazyConnectionDataSourceProxy: the transaction manager opens the
+ * connection before the read-only flag of the new transaction is visible here.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    private final ReadYourWritesWindow readYourWrites;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesWindow readYourWrites) {
+        this.readYourWrites = readYourWrites;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !readYourWrites.isOpen()
+                ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import com.example.demo.service.ReadYourWritesWindow;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replica support, switched on by setting hotel.datasource.replica.jdbc-url. The primary
+ * keeps its spring.datasource.* settings; the replica pool takes any Hikari setting under
+ * hotel.datasource.replica (username, password, maximum-pool-size, ...). Read-only transactions
+ * go to the replica, see {@link ReadWriteRoutingDataSource}.
+ *
+ * Flyway only migrates the primary: a real replica gets the schema through replication. When the
+ * "replica" is a database of its own (two embedded databases in tests, a local setup),
+ * hotel.datasource.migrate-replica=true migrates it too.
+ */
+@Configuration
+@ConditionalOnProperty(name = "hotel.datasource.replica.jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Value("${hotel.datasource.migrate-replica:false}")
+    private boolean migrateReplica;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("hotel.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, HikariDataSource replicaDataSource,
+                                 ReadYourWritesWindow readYourWritesWindow) {
+        // Hibernate is told the pool already disables auto-commit: both pools have to agree
+        replicaDataSource.setAutoCommit(primaryDataSource.isAutoCommit());
+        if (migrateReplica) {
+            Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        }
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, readYourWritesWindow));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.HibernateMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache: rooms (by id and by room number) live in local, size-bounded
+ * Caffeine caches. Hibernate keeps them in step with every insert, update and delete that goes
+ * through JPA, so only writes made behind its back (other instances, hand-written SQL) can leave
+ * a stale entry, and those expire after hotel.cache.rooms.ttl.
+ *
+ * Hit/miss counts per region are published as hibernate.second.level.cache.requests and
+ * hibernate.cache.natural.id.requests under /actuator/metrics.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String ROOM_REGION = "hotel_room";
+    public static final String ROOM_NUMBER_REGION = "hotel_room_number";
+
+    @Value("${hotel.cache.rooms.max-size:20000}")
+    private long roomsMaxSize;
+
+    @Value("${hotel.cache.rooms.ttl:10m}")
+    private Duration roomsTtl;
+
+    @Value("${hotel.cache.queries.max-size:1000}")
+    private long queriesMaxSize;
+
+    // One manager per application context, so test contexts never share (or close) each other's caches
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hotel-l2:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(ROOM_REGION, bounded(roomsMaxSize, roomsTtl));
+        cacheManager.createCache(ROOM_NUMBER_REGION, bounded(roomsMaxSize, roomsTtl));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(queriesMaxSize, roomsTtl));
+        // Only holds one last-write timestamp per table: never evict it, or cached queries go stale
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every region is created above; a region nobody sized is a mistake, not something to create unbounded
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+            // The hit/miss counters below are read from Hibernate's statistics
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            // ...but without an INFO line of session metrics for every single session
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, false);
+        };
+    }
+
+    @Bean
+    public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "hotel", Tags.empty());
+    }
+
+    private static <K, V> CaffeineConfiguration<K, V> bounded(long maxSize, Duration ttl) {
+        CaffeineConfiguration<K, V> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
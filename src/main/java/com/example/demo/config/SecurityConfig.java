@@ -2,7 +2,9 @@ package com.example.demo.config;
 
 
 import com.example.demo.filter.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,12 +16,18 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @SuppressWarnings("ALL")
 @Configuration
 @EnableWebSecurity
@@ -41,36 +49,53 @@ public class SecurityConfig {
                 .build();
     }
 */
-    @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
-    }
+    @Value("${hotel.security.bcrypt-strength:10}")
+    private int bcryptStrength;
 
+    @Value("${hotel.security.hashing.threads:0}")
+    private int hashingThreads;
 
-
-    @Autowired
-    private JwtAuthFilter authFilter;
-
+    @Value("${hotel.security.hashing.queue-capacity:200}")
+    private int hashingQueueCapacity;
 
     @Bean
-    //authentication
-    public UserDetailsService userDetailsService() {
-//        UserDetails admin = User.withUsername("Basant")
-//                .password(encoder.encode("Pwd1"))
-//                .roles("ADMIN")
-//                .build();
-//        UserDetails user = User.withUsername("John")
-//                .password(encoder.encode("Pwd2"))
-//                .roles("USER","ADMIN","HR")
-//                .build();
-//        return new InMemoryUserDetailsManager(admin, user);
-        return new UserInfoUserDetailsService();
+    public PasswordEncoder passwordEncoder(){
+        return delegatingPasswordEncoder(bcryptStrength);
     }
 
+    // {bcrypt} hashes at the given cost; hashes stored without an {id} prefix are read as bcrypt
+    // and, like hashes of another cost, get rewritten on the next successful login
+    public static PasswordEncoder delegatingPasswordEncoder(int strength) {
+        PasswordEncoder bcrypt = new TunableBCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
 
+    // Logins hash on these threads only, so a login spike queues here instead of taking
+    // every request thread; once the queue is full logins are refused right away
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService passwordHashingExecutor() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(hashingQueueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
 
 
 
+    @Autowired
+    private JwtAuthFilter authFilter;
+
+    // The @Component: logins, password rehashing and the JWT filter's user cache share it
+    @Autowired
+    private UserInfoUserDetailsService userDetailsService;
 
 
 
@@ -111,9 +136,16 @@ public class SecurityConfig {
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http.csrf().disable()
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/authenticate", "/register", "/error").permitAll()
+                        // the request was authorized before going async (login, exports); the
+                        // JWT filter does not run again on the async and error dispatches
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        .requestMatchers("/authenticate", "/register", "/error", "/actuator/health").permitAll()
+                        // metrics and the Prometheus scrape included: the scraper sends an ADMIN token
+                        .requestMatchers("/actuator/**", "/users/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
+                // POST /logout revokes the caller's tokens (AuthController); there is no session to end
+                .logout(logout -> logout.disable())
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(authFilter, UsernamePasswordAuthenticationFilter.class)
@@ -124,8 +156,9 @@ public class SecurityConfig {
     @Bean
     public AuthenticationProvider authenticationProvider(){
         DaoAuthenticationProvider authenticationProvider=new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService());
+        authenticationProvider.setUserDetailsService(userDetailsService);
         authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
         return authenticationProvider;
     }
 
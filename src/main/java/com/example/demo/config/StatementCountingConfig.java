@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import com.example.demo.filter.StatementBudgetInterceptor;
+import com.example.demo.service.StatementCounter;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps the application's datasource so every statement reaches the {@link StatementCounter},
+ * and counts statements per request with the {@link StatementBudgetInterceptor}. This replaces
+ * spring.jpa.show-sql: nothing is printed per statement, only slow statements and endpoints over
+ * their budget are logged, asynchronously (see StatementLog).
+ *
+ * Only the bean named dataSource is wrapped. With a read replica configured that is the routing
+ * proxy in front of both pools, so replica reads are counted too.
+ */
+@Configuration
+public class StatementCountingConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private StatementBudgetInterceptor statementBudgetInterceptor;
+
+    // Static, and the counter is looked up on first use: post-processors are created before the
+    // beans the counter depends on
+    @Bean
+    public static BeanPostProcessor statementCountingDataSource(ObjectProvider<StatementCounter> statementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("hotel")
+                        .listener(new QueryExecutionListener() {
+                            @Override
+                            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            }
+
+                            @Override
+                            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                statementCounter.getObject().afterQuery(execInfo, queryInfoList);
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(statementBudgetInterceptor);
+    }
+}
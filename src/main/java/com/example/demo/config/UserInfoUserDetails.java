@@ -20,7 +20,17 @@ public class UserInfoUserDetails implements UserDetails {
     public UserInfoUserDetails(UserInfo userInfo) {
         name = userInfo.getName();
         password = userInfo.getPassword();
-        authorities = Arrays.stream(userInfo.getRoles().split(","))
+        authorities = toAuthorities(Arrays.asList(userInfo.getRoles().split(",")));
+    }
+
+    // Built from the claims of a verified token: no password, nothing read from the DB
+    public UserInfoUserDetails(String name, List<String> roles) {
+        this.name = name;
+        this.authorities = toAuthorities(roles);
+    }
+
+    private static List<GrantedAuthority> toAuthorities(List<String> roles) {
+        return roles.stream()
                 .map(role -> new SimpleGrantedAuthority(role.trim().toUpperCase()))
                 .collect(Collectors.toList());
     }
@@ -2,21 +2,44 @@ package com.example.demo.config;
 
 import com.example.demo.entity.UserInfo;
 import com.example.demo.repository.UserInfoRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.util.Optional;
 
 //interface to load user details from DB
 @Component
-public class UserInfoUserDetailsService implements UserDetailsService {
+public class UserInfoUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserInfoRepository repository;
 
+    @Value("${hotel.security.user-cache.ttl:60s}")
+    private Duration userCacheTtl;
+
+    @Value("${hotel.security.user-cache.max-size:10000}")
+    private long userCacheMaxSize;
+
+    // Short lived copies for request authentication; logins always read the database
+    private Cache<String, UserDetails> recentUsers;
+
+    @PostConstruct
+    void initUserCache() {
+        recentUsers = Caffeine.newBuilder()
+                .expireAfterWrite(userCacheTtl)
+                .maximumSize(userCacheMaxSize)
+                .build();
+    }
+
 //returns UserDetail obj containing user info and authorities
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -26,4 +49,26 @@ public class UserInfoUserDetailsService implements UserDetailsService {
 
     }
 
+    public UserDetails loadUserByUsernameCached(String username) throws UsernameNotFoundException {
+        UserDetails cached = recentUsers.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails loaded = loadUserByUsername(username);
+        recentUsers.put(username, loaded);
+        return loaded;
+    }
+
+    // Called after a successful login whose stored hash uses another cost or format
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return repository.findByName(user.getUsername())
+                .map(userInfo -> {
+                    userInfo.setPassword(newPassword);
+                    recentUsers.invalidate(userInfo.getName());
+                    return (UserDetails) new UserInfoUserDetails(repository.save(userInfo));
+                })
+                .orElse(user);
+    }
+
 }
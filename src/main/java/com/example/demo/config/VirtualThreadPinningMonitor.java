@@ -0,0 +1,118 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that block while pinned to their carrier thread, i.e. inside a
+ * synchronized block or a native frame. A pinned thread holds one of the few carriers for as
+ * long as it waits (on a socket, a lock, a pool), so a handful of them can stall the whole
+ * request pool even though thousands of virtual threads are available.
+ *
+ * Listens to the JFR jdk.VirtualThreadPinned event in-process. Pinnings longer than
+ * hotel.virtual-threads.pinned-threshold are timed in the hotel.virtual-threads.pinned metric,
+ * tagged with the first application or driver frame on the stack. The first pinning at each
+ * site is logged with its stack, later ones at debug only.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    public static final String METRIC = "hotel.virtual-threads.pinned";
+
+    // Frames of the JDK itself never explain a pinning: the site is whoever called into it
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hotel.virtual-threads.pinned-threshold:20ms}")
+    private Duration threshold;
+
+    @Value("${hotel.virtual-threads.pinned-stack-depth:16}")
+    private int stackDepth;
+
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", threshold.toMillis());
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        String site = site(frames);
+        Timer.builder(METRIC)
+                .description("Time virtual threads spent blocked while pinned to their carrier")
+                .tag("site", site)
+                .register(meterRegistry)
+                .record(event.getDuration());
+
+        if (reportedSites.add(site)) {
+            String stack = frames.stream().limit(stackDepth)
+                    .map(frame -> "\n\tat " + describe(frame))
+                    .collect(Collectors.joining());
+            log.warn("Virtual thread {} pinned to its carrier for {} ms at {}; later pinnings here are logged at debug{}",
+                    threadName(event), event.getDuration().toMillis(), site, stack);
+        } else {
+            log.debug("Virtual thread {} pinned to its carrier for {} ms at {}",
+                    threadName(event), event.getDuration().toMillis(), site);
+        }
+    }
+
+    private static String site(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(frame -> frame.getMethod() != null)
+                .filter(frame -> JDK_PACKAGES.stream().noneMatch(frame.getMethod().getType().getName()::startsWith))
+                .findFirst()
+                .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                .orElse("unknown");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        if (frame.getMethod() == null) {
+            return "<unknown>";
+        }
+        String location = frame.getLineNumber() >= 0 ? ":" + frame.getLineNumber() : "";
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + location;
+    }
+
+    private static String threadName(RecordedEvent event) {
+        if (event.getThread() == null) {
+            return "?";
+        }
+        // virtual threads are usually unnamed
+        String name = event.getThread().getJavaName();
+        return name != null && !name.isEmpty() ? name : "#" + event.getThread().getJavaThreadId();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Async requests (logins on the hashing pool, streamed bodies) time out after
+ * spring.mvc.async.request-timeout. A handler that needs another limit, like the reservation
+ * export that runs for as long as the client keeps reading, puts it in milliseconds in the
+ * {@link #TIMEOUT_ATTRIBUTE} request attribute before it returns; -1 means no timeout.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    public static final String TIMEOUT_ATTRIBUTE = WebAsyncConfig.class.getName() + ".timeout";
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            // runs before the request goes async, while its timeout can still be changed
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest
+                        && request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Long timeout) {
+                    asyncRequest.setTimeout(timeout);
+                }
+            }
+        });
+    }
+}
@@ -3,9 +3,12 @@ package com.example.demo.controller;
 
 import com.example.demo.dto.AuthRequest;
 import com.example.demo.entity.UserInfo;
-import com.example.demo.repository.UserInfoRepository;
 import com.example.demo.service.JwtService;
+import com.example.demo.service.UserInfoService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,6 +18,9 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 public class AuthController {
@@ -26,17 +32,49 @@ public class AuthController {
     private JwtService jwtService;
 
     @Autowired
-    private UserInfoRepository userInfoRepository;
+    private UserInfoService userInfoService;
 
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ExecutorService passwordHashingExecutor;
+
+    // The password check runs on the bounded hashing pool and the request thread is released meanwhile
     @PostMapping("/authenticate")
-    public ResponseEntity<?> authenticateAndGetToken(@RequestBody AuthRequest authRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateAndGetToken(@RequestBody AuthRequest authRequest) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticate(authRequest), passwordHashingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many logins in progress, please retry."));
+        }
+    }
+
+    // Signs the caller out on every device: a token can only be revoked together with all the
+    // others issued to the same user
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(Authentication authentication) {
+        userInfoService.revokeTokens(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Admin only: ends every session of a user, e.g. after their account was compromised
+    @PostMapping("/users/{name}/revoke-tokens")
+    public ResponseEntity<?> revokeTokens(@PathVariable String name) {
+        if (!userInfoService.revokeTokens(name)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found.");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private ResponseEntity<?> authenticate(AuthRequest authRequest) {
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
 
             if (authentication.isAuthenticated()) {
-                UserInfo user = userInfoRepository.findByName(authRequest.getUsername()).orElseThrow();
-                String token = jwtService.generateToken(authRequest.getUsername());
+                UserInfo user = userInfoService.getUserByName(authRequest.getUsername()).orElseThrow();
+                String token = jwtService.generateToken(user);
 
                 Map<String, String> response = new HashMap<>();
                 response.put("token", token);
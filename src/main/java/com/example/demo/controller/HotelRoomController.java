@@ -1,56 +1,87 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CursorPage;
 import com.example.demo.dto.ReservationDTO;
+import com.example.demo.dto.RoomOffer;
+import com.example.demo.dto.RoomImportResult;
 import com.example.demo.entity.HotelRoom;
 import com.example.demo.entity.Reservation;
-import com.example.demo.repository.HotelRoomRepository;
-import com.example.demo.repository.ReservationRepository;
+import com.example.demo.filter.StatementBudget;
 import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.PricingService;
+import com.example.demo.service.ReservationService;
+import com.example.demo.service.ResourceVersions;
+import com.example.demo.service.RoomCatalogCache;
+import com.example.demo.service.RoomBulkImportService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
 public class HotelRoomController {
 
     @Autowired
-    private HotelRoomRepository hotelRoomRepository;
+    private HotelRoomService hotelRoomService;
 
     @Autowired
-    private HotelRoomService hotelRoomService;
+    private ReservationService reservationService;
+
+    @Autowired
+    private RoomBulkImportService roomBulkImportService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private RoomCatalogCache roomCatalogCache;
 
     @Autowired
-    private ReservationRepository reservationRepository;
+    private PricingService pricingService;
 
-    // ✅ Get all rooms
+    // ✅ Get all rooms; 304 when the client's ETag is still current
     @GetMapping("/rooms")
-    public List<HotelRoom> getAllRooms() {
-        return hotelRoomRepository.findAll();
+    public ResponseEntity<?> getAllRooms(WebRequest request) {
+        return catalogView(roomCatalogCache.all(), request, hotelRoomService::getAllRooms);
+    }
+
+    // ✅ Get rooms one page at a time: ?limit=100, then ?after=<nextCursor>&limit=100
+    @GetMapping(value = "/rooms", params = "limit")
+    public CursorPage<HotelRoom> getRoomsPage(@RequestParam(defaultValue = "0") long after,
+                                              @RequestParam int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(hotelRoomService.getRoomsAfter(after, size + 1), size, HotelRoom::getId, room -> room);
     }
 
-    // ✅ Search rooms
+    // ✅ Search rooms; with dates, every result carries the total of that stay
+    // One query for the matching rooms; dates are checked against the availability index and
+    // priced by the rate calendar, both in memory
+    @StatementBudget(2)
     @GetMapping("/rooms/search")
-    public List<HotelRoom> searchRooms(
+    public List<RoomOffer> searchRooms(
             @RequestParam(required = false) String category,
             @RequestParam(required = false) Integer minPrice,
             @RequestParam(required = false) Integer maxPrice,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkIn,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate checkOut
     ) {
-        return hotelRoomService.searchAvailableRooms(category, minPrice, maxPrice, checkIn, checkOut);
+        return pricingService.offers(hotelRoomService.searchAvailableRooms(category, minPrice, maxPrice, checkIn, checkOut),
+                checkIn, checkOut);
     }
 
     // ✅ Get room by room number
     @GetMapping("/rooms/number/{roomNumber}")
     public ResponseEntity<HotelRoom> getRoomByRoomNumber(@PathVariable String roomNumber) {
-        return hotelRoomRepository.findByRoomNumber(roomNumber)
+        return hotelRoomService.getRoomByNumber(roomNumber)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -58,7 +89,7 @@ public class HotelRoomController {
     // ✅ Get room by ID
     @GetMapping("/rooms/{id}")
     public ResponseEntity<HotelRoom> getRoomById(@PathVariable Long id) {
-        return hotelRoomRepository.findById(id)
+        return hotelRoomService.getRoomById(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -66,14 +97,20 @@ public class HotelRoomController {
     // ✅ Create new room
     @PostMapping("/rooms")
     public ResponseEntity<HotelRoom> createRoom(@RequestBody HotelRoom room) {
-        HotelRoom saved = hotelRoomRepository.save(room);
+        HotelRoom saved = hotelRoomService.addRoom(room);
         return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
 
+    // ✅ Create or update many rooms by room number (JSON array or NDJSON, streamed)
+    @PostMapping(value = "/rooms/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public RoomImportResult bulkUpsertRooms(HttpServletRequest request) throws IOException {
+        return roomBulkImportService.importRooms(request.getInputStream());
+    }
+
     // ✅ Update room
     @PutMapping("/rooms/{id}")
     public ResponseEntity<?> updateRoom(@PathVariable Long id, @RequestBody HotelRoom roomDetails) {
-        Optional<HotelRoom> opt = hotelRoomRepository.findById(id);
+        Optional<HotelRoom> opt = hotelRoomService.getRoomById(id);
         if (opt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Room not found.");
         }
@@ -84,72 +121,98 @@ public class HotelRoomController {
         room.setAvailable(roomDetails.isAvailable());
         room.setPricePerNight(roomDetails.getPricePerNight()); // ✅ Fix: update price too
 
-        HotelRoom updated = hotelRoomRepository.save(room);
+        HotelRoom updated = hotelRoomService.updateRoom(room);
         return ResponseEntity.ok(updated);
     }
 
     // ✅ Delete room
     @DeleteMapping("/rooms/{id}")
     public ResponseEntity<?> deleteRoom(@PathVariable Long id) {
-        if (!hotelRoomRepository.existsById(id)) {
+        if (!hotelRoomService.existsById(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Room not found.");
         }
 
-        hotelRoomRepository.deleteById(id);
+        hotelRoomService.deleteRoom(id);
         return ResponseEntity.ok("Room deleted.");
     }
 
-    // ✅ Get only available rooms
+    // ✅ Get only available rooms; 304 when the client's ETag is still current
     @GetMapping("/rooms/available")
-    public List<HotelRoom> getAvailableRooms() {
-        return hotelRoomRepository.findByAvailableTrue();
+    public ResponseEntity<?> getAvailableRooms(WebRequest request) {
+        return catalogView(roomCatalogCache.available(), request, hotelRoomService::getAvailableRooms);
     }
 
-    // ✅ Get rooms by category
+    // ✅ Get rooms by category; 304 when the client's ETag is still current
     @GetMapping("/rooms/category/{category}")
-    public List<HotelRoom> getRoomsByCategory(@PathVariable String category) {
-        return hotelRoomRepository.findByCategoryIgnoreCase(category);
+    public ResponseEntity<?> getRoomsByCategory(@PathVariable String category, WebRequest request) {
+        return catalogView(roomCatalogCache.category(category), request, () -> hotelRoomService.getRoomsByCategory(category));
     }
 
-    // ✅ Get reservations by customer name
+    // Writes the pre-encoded view (gzipped when the client accepts it) while the catalog cache
+    // is current, and falls back to the query until a rebuild after a room write has finished.
+    // The fallback carries the current tag, so it reads the primary like the rebuild does
+    private ResponseEntity<?> catalogView(Optional<RoomCatalogCache.View> cached, WebRequest request,
+                                          Supplier<List<HotelRoom>> query) {
+        if (cached.isEmpty()) {
+            if (request.checkNotModified(resourceVersions.roomsTag())) {
+                return null;
+            }
+            return ResponseEntity.ok().header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .body(hotelRoomService.onPrimary(query));
+        }
+
+        RoomCatalogCache.View view = cached.get();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = view.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (request.checkNotModified(gzip ? view.gzipEtag() : view.etag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? view.gzip() : view.json());
+    }
+
+    // ✅ Get reservations by customer name; 304 when the client's ETag is still current.
+    // Read on the primary: the replica may not hold every write the tag counts
+    @StatementBudget(1)
     @GetMapping("/reservations/customer/{name}")
-    public List<ReservationDTO> getReservationsByCustomer(@PathVariable String name) {
-        return reservationRepository.findByCustomerNameIgnoreCase(name)
-                .stream()
-                .map(ReservationDTO::new)
-                .collect(Collectors.toList());
+    public List<ReservationDTO> getReservationsByCustomer(@PathVariable String name, WebRequest request) {
+        if (request.checkNotModified(resourceVersions.reservationsTag())) {
+            return null;
+        }
+        return reservationService.onPrimary(() -> reservationService.getReservationsByCustomerName(name));
     }
 
     // ✅ Get reservations by room ID
+    @StatementBudget(1)
     @GetMapping("/reservations/room/{roomId}")
     public List<ReservationDTO> getReservationsByRoomId(@PathVariable Long roomId) {
-        return reservationRepository.findByRoomId(roomId)
-                .stream()
-                .map(ReservationDTO::new)
-                .collect(Collectors.toList());
+        return reservationService.getReservationsByRoomId(roomId);
     }
 
     // ✅ Get reservations in a date range
+    @StatementBudget(1)
     @GetMapping("/reservations/date-range")
     public List<ReservationDTO> getReservationsByDateRange(
             @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
-        return reservationRepository.findByCheckInDateBetween(start, end)
-                .stream()
-                .map(ReservationDTO::new)
-                .collect(Collectors.toList());
+        return reservationService.getReservationsByDateRange(start, end);
     }
 
     // Total number of rooms
     @GetMapping("/rooms/count")
     public Long getTotalRooms() {
-        return hotelRoomRepository.count();
+        return hotelRoomService.countRooms();
     }
 
     // Number of available rooms
     @GetMapping("/rooms/available/count")
     public Long getAvailableRoomsCount() {
-        return hotelRoomRepository.countByAvailableTrue();
+        return hotelRoomService.countAvailableRooms();
     }
 
 }
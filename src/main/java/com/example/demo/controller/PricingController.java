@@ -0,0 +1,91 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.dto.StayQuote;
+import com.example.demo.entity.NightlyRate;
+import com.example.demo.filter.StatementBudget;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.PricingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+public class PricingController {
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    // Caps the work (and the response) of a single quote request
+    @Value("${hotel.pricing.max-quotes:10000}")
+    private int maxQuotes;
+
+    @GetMapping("/rates")
+    public List<NightlyRate> getRates() {
+        return pricingService.getRates();
+    }
+
+    // A room rate ({"roomId": 12, ...}) or a category rate ({"category": "Suite", ...})
+    @PostMapping("/rates")
+    public ResponseEntity<?> addRate(@RequestBody NightlyRate rate) {
+        String error = validate(rate);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(error);
+        }
+        rate.setId(null);
+        return ResponseEntity.status(HttpStatus.CREATED).body(pricingService.addRate(rate));
+    }
+
+    @DeleteMapping("/rates/{id}")
+    public ResponseEntity<?> deleteRate(@PathVariable Long id) {
+        if (!pricingService.deleteRate(id)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Rate not found.");
+        }
+        return ResponseEntity.ok("Rate deleted.");
+    }
+
+    // Prices every room in roomIds for every stay in stays, from memory
+    @StatementBudget(0)
+    @PostMapping("/quotes")
+    public ResponseEntity<?> quote(@RequestBody QuoteRequest request) {
+        if (request.roomIds() == null || request.stays() == null
+                || request.stays().stream().anyMatch(stay -> stay.checkIn() == null || stay.checkOut() == null)) {
+            return ResponseEntity.badRequest().body("roomIds and stays with check-in and check-out dates are required.");
+        }
+        if (request.combinations() > maxQuotes) {
+            return ResponseEntity.badRequest().body("At most " + maxQuotes + " room and stay combinations per request.");
+        }
+        List<StayQuote> quotes = pricingService.quote(request);
+        return ResponseEntity.ok(quotes);
+    }
+
+    private String validate(NightlyRate rate) {
+        if ((rate.getRoomId() == null) == (rate.getCategory() == null)) {
+            return "Either a room ID or a category is required, not both.";
+        }
+        if (rate.getRoomId() != null && !hotelRoomService.existsById(rate.getRoomId())) {
+            return "Invalid Room ID.";
+        }
+        if (rate.getFirstNight() == null || rate.getLastNight() == null) {
+            return "First and last night are required.";
+        }
+        if (rate.getLastNight().isBefore(rate.getFirstNight())) {
+            return "Last night must not be before first night.";
+        }
+        if (rate.getDaysOfWeek() <= 0 || rate.getDaysOfWeek() > NightlyRate.ALL_DAYS) {
+            return "Days of week must be a mask of bits 0 (Monday) to 6 (Sunday).";
+        }
+        if (rate.getPriceCents() < 0) {
+            return "Price must not be negative.";
+        }
+        return null;
+    }
+}
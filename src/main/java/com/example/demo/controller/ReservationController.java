@@ -1,18 +1,33 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.WebAsyncConfig;
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ReservationBatchResult;
 import com.example.demo.dto.ReservationDTO;
 import com.example.demo.entity.HotelRoom;
 import com.example.demo.entity.Reservation;
-import com.example.demo.repository.HotelRoomRepository;
-import com.example.demo.repository.ReservationRepository;
+import com.example.demo.filter.StatementBudget;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationExportService;
 import com.example.demo.service.ReservationService;
+import com.example.demo.service.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/reservations")
@@ -22,26 +37,68 @@ public class ReservationController {
     private ReservationService reservationService;
 
     @Autowired
-    private HotelRoomRepository hotelRoomRepository;
+    private HotelRoomService hotelRoomService;
 
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Value("${hotel.reservations.export-timeout:1h}")
+    private Duration exportTimeout;
+
+    // 304 when the client's ETag is still current. Read on the primary: the replica may not hold
+    // every write the tag counts, and an unchanged list costs no query at all
+    @StatementBudget(1)
     @GetMapping
-    public List<ReservationDTO> getAllReservations() {
-        return reservationService.getAllReservations().stream()
-                .filter(res -> res.getRoom() != null)
-                .map(ReservationDTO::new)
-                .toList();
+    public List<ReservationDTO> getAllReservations(WebRequest request) {
+        if (request.checkNotModified(resourceVersions.reservationsTag())) {
+            return null;
+        }
+        return reservationService.onPrimary(reservationService::getAllReservations);
+    }
 
+    // Keyset-paginated listing: GET /reservations?limit=100, then ?after=<nextCursor>&limit=100
+    @GetMapping(params = "limit")
+    public CursorPage<ReservationDTO> getReservationsPage(@RequestParam(defaultValue = "0") long after,
+                                                         @RequestParam int limit) {
+        int size = CursorPage.clampLimit(limit);
+        return CursorPage.of(reservationService.getReservationsAfter(after, size + 1), size,
+                ReservationDTO::getId, Function.identity());
     }
 
 
 
+    // Full history for reconciliation, streamed row by row: ?format=ndjson (default) or ?format=csv.
+    // It may run far longer than other async requests, so it has a timeout of its own
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportReservations(@RequestParam(defaultValue = "ndjson") String format,
+                                                                    HttpServletRequest request) {
+        ReservationExportService.Format exportFormat;
+        try {
+            exportFormat = ReservationExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        request.setAttribute(WebAsyncConfig.TIMEOUT_ATTRIBUTE, exportTimeout.toMillis());
+        MediaType contentType = exportFormat == ReservationExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"reservations." + format.toLowerCase() + "\"")
+                .body(out -> reservationExportService.export(exportFormat, out));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<?> getReservationById(@PathVariable Long id) {
-        Optional<Reservation> resOpt = reservationService.getReservationById(id);
+        Optional<ReservationDTO> resOpt = reservationService.getReservationDtoById(id);
         if (resOpt.isEmpty()) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Reservation not found.");
         }
-        return ResponseEntity.ok(new ReservationDTO(resOpt.get()));
+        return ResponseEntity.ok(resOpt.get());
     }
 
     @PostMapping
@@ -50,19 +107,14 @@ public class ReservationController {
             return ResponseEntity.badRequest().body("Room ID is required.");
         }
 
-        Optional<HotelRoom> roomOpt = hotelRoomRepository.findById(dto.getRoomId());
+        Optional<HotelRoom> roomOpt = hotelRoomService.getRoomById(dto.getRoomId());
         if (roomOpt.isEmpty()) {
             return ResponseEntity.badRequest().body("Invalid Room ID.");
         }
 
-        boolean conflict = reservationService.hasDateConflict(
-                dto.getRoomId(),
-                dto.getCheckInDate(),
-                dto.getCheckOutDate()
-        );
-
-        if (conflict) {
-            return ResponseEntity.status(HttpStatus.CONFLICT).body("Room is already booked for the selected dates.");
+        String datesProblem = validateDates(dto);
+        if (datesProblem != null) {
+            return ResponseEntity.badRequest().body(datesProblem);
         }
 
         Reservation newRes = new Reservation();
@@ -72,8 +124,69 @@ public class ReservationController {
         newRes.setCheckOutDate(dto.getCheckOutDate());
         newRes.setPaymentStatus(dto.isPaymentStatus());
 
-        Reservation saved = reservationService.addReservation(newRes);
-        return ResponseEntity.status(HttpStatus.CREATED).body(new ReservationDTO(saved));
+        Optional<Reservation> saved = reservationService.reserveIfAvailable(newRes);
+        if (saved.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Room is already booked for the selected dates.");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(new ReservationDTO(saved.get()));
+    }
+
+    // Group bookings: validates and conflict-checks the whole list in one pass, then writes it with
+    // batched inserts. Answers one result per entry, in request order.
+    @PostMapping("/batch")
+    public List<ReservationBatchResult> addReservations(@RequestBody List<ReservationDTO> dtos) {
+        Map<Long, HotelRoom> rooms = hotelRoomService.getRoomsById(dtos.stream()
+                        .map(ReservationDTO::getRoomId)
+                        .filter(id -> id != null)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(HotelRoom::getId, Function.identity()));
+
+        ReservationBatchResult[] results = new ReservationBatchResult[dtos.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Reservation> candidates = new ArrayList<>();
+        for (int i = 0; i < dtos.size(); i++) {
+            ReservationDTO dto = dtos.get(i);
+            String problem = validate(dto, rooms);
+            if (problem != null) {
+                results[i] = new ReservationBatchResult(i, ReservationBatchResult.Status.INVALID, dto, problem);
+                continue;
+            }
+            positions.add(i);
+            candidates.add(new Reservation(dto.getCustomerName(), rooms.get(dto.getRoomId()),
+                    dto.getCheckInDate(), dto.getCheckOutDate(), dto.isPaymentStatus()));
+        }
+
+        List<Optional<Reservation>> outcomes = reservationService.reserveAllIfAvailable(candidates);
+        for (int k = 0; k < outcomes.size(); k++) {
+            int i = positions.get(k);
+            results[i] = outcomes.get(k)
+                    .map(saved -> new ReservationBatchResult(i, ReservationBatchResult.Status.CREATED, new ReservationDTO(saved), null))
+                    .orElseGet(() -> new ReservationBatchResult(i, ReservationBatchResult.Status.CONFLICT, dtos.get(i),
+                            "Room is already booked for the selected dates."));
+        }
+        return List.of(results);
+    }
+
+    private static String validate(ReservationDTO dto, Map<Long, HotelRoom> rooms) {
+        if (dto.getRoomId() == null) {
+            return "Room ID is required.";
+        }
+        if (!rooms.containsKey(dto.getRoomId())) {
+            return "Invalid Room ID.";
+        }
+        return validateDates(dto);
+    }
+
+    // A stay without both dates, or ending before it starts, would cover no room nights
+    private static String validateDates(ReservationDTO dto) {
+        if (dto.getCheckInDate() == null || dto.getCheckOutDate() == null) {
+            return "Check-in and check-out dates are required.";
+        }
+        if (dto.getCheckOutDate().isBefore(dto.getCheckInDate())) {
+            return "Check-out date must not be before check-in date.";
+        }
+        return null;
     }
 
     @PutMapping("/{id}")
@@ -83,6 +196,11 @@ public class ReservationController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Reservation not found.");
         }
 
+        String datesProblem = validateDates(dto);
+        if (datesProblem != null) {
+            return ResponseEntity.badRequest().body(datesProblem);
+        }
+
         Reservation resToUpdate = resOpt.get();
         resToUpdate.setCustomerName(dto.getCustomerName());
         resToUpdate.setCheckInDate(dto.getCheckInDate());
@@ -90,7 +208,7 @@ public class ReservationController {
         resToUpdate.setPaymentStatus(dto.isPaymentStatus());
 
         if (dto.getRoomId() != null) {
-            Optional<HotelRoom> roomOpt = hotelRoomRepository.findById(dto.getRoomId());
+            Optional<HotelRoom> roomOpt = hotelRoomService.getRoomById(dto.getRoomId());
             if (roomOpt.isEmpty()) {
                 return ResponseEntity.badRequest().body("Invalid Room ID.");
             }
@@ -112,19 +230,16 @@ public class ReservationController {
         return ResponseEntity.ok("Reservation deleted.");
     }
 
-    @Autowired
-    private ReservationRepository reservationRepository;
-
     // Total number of reservations
     @GetMapping("/count")
     public Long getTotalReservations() {
-        return reservationRepository.count();
+        return reservationService.countReservations();
     }
 
     // Number of active (future or ongoing) reservations
     @GetMapping("/active/count")
     public Long getActiveReservationsCount() {
-        return reservationRepository.countByCheckOutDateAfterOrCheckOutDateEquals(LocalDate.now(), LocalDate.now());
+        return reservationService.countActiveReservations();
     }
 
     @PutMapping("/{id}/pay")
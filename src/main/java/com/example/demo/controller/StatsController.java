@@ -0,0 +1,22 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.service.DashboardStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class StatsController {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    // All admin dashboard figures in one call, served from memory
+    @GetMapping("/stats")
+    public DashboardStats getStats() {
+        return dashboardStatsService.getStats();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+// One page of a keyset-paginated listing; pass nextCursor as ?after= to get the next page (null on the last one)
+public class CursorPage<T> {
+
+    // Caps what a single request can load into memory, whatever limit the client asks for
+    public static final int MAX_LIMIT = 500;
+
+    private List<T> items;
+    private Long nextCursor;
+
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public static int clampLimit(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    // rows holds up to limit + 1 entries in id order: the extra one only tells that another page exists
+    public static <E, T> CursorPage<T> of(List<E> rows, int limit, Function<E, Long> idOf, Function<E, T> mapper) {
+        List<E> page = rows.size() > limit ? rows.subList(0, limit) : rows;
+        Long nextCursor = rows.size() > limit ? idOf.apply(page.get(page.size() - 1)) : null;
+        return new CursorPage<>(page.stream().map(mapper).toList(), nextCursor);
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public Long getNextCursor() { return nextCursor; }
+    public void setNextCursor(Long nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+// Everything the admin dashboard shows, in one response
+public class DashboardStats {
+    private LocalDate date;
+    private long totalRooms;
+    private long availableRooms;
+    private long occupiedRooms;
+    private double occupancyRate;
+    private double revenueToday;
+    private long totalReservations;
+    private long activeReservations;
+
+    public DashboardStats() {}
+
+    public DashboardStats(LocalDate date, long totalRooms, long availableRooms, long occupiedRooms,
+                          double revenueToday, long totalReservations, long activeReservations) {
+        this.date = date;
+        this.totalRooms = totalRooms;
+        this.availableRooms = availableRooms;
+        this.occupiedRooms = occupiedRooms;
+        this.occupancyRate = totalRooms > 0 ? occupiedRooms * 100.0 / totalRooms : 0;
+        this.revenueToday = revenueToday;
+        this.totalReservations = totalReservations;
+        this.activeReservations = activeReservations;
+    }
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public long getTotalRooms() { return totalRooms; }
+    public void setTotalRooms(long totalRooms) { this.totalRooms = totalRooms; }
+
+    public long getAvailableRooms() { return availableRooms; }
+    public void setAvailableRooms(long availableRooms) { this.availableRooms = availableRooms; }
+
+    // Rooms with a stay covering today
+    public long getOccupiedRooms() { return occupiedRooms; }
+    public void setOccupiedRooms(long occupiedRooms) { this.occupiedRooms = occupiedRooms; }
+
+    // Percentage of rooms occupied today
+    public double getOccupancyRate() { return occupancyRate; }
+    public void setOccupancyRate(double occupancyRate) { this.occupancyRate = occupancyRate; }
+
+    // Nightly price of every room occupied today
+    public double getRevenueToday() { return revenueToday; }
+    public void setRevenueToday(double revenueToday) { this.revenueToday = revenueToday; }
+
+    public long getTotalReservations() { return totalReservations; }
+    public void setTotalReservations(long totalReservations) { this.totalReservations = totalReservations; }
+
+    // Reservations not checked out yet (check-out today or later)
+    public long getActiveReservations() { return activeReservations; }
+    public void setActiveReservations(long activeReservations) { this.activeReservations = activeReservations; }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Every room in roomIds is quoted for every stay in stays
+public record QuoteRequest(List<Long> roomIds, List<Stay> stays) {
+
+    public record Stay(LocalDate checkIn, LocalDate checkOut) {
+    }
+
+    public int combinations() {
+        return (roomIds != null ? roomIds.size() : 0) * (stays != null ? stays.size() : 0);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.dto;
+
+// Outcome of one entry of a POST /reservations/batch request, in request order
+public class ReservationBatchResult {
+
+    public enum Status { CREATED, CONFLICT, INVALID }
+
+    private int index;
+    private Status status;
+    private ReservationDTO reservation;
+    private String message;
+
+    public ReservationBatchResult() {}
+
+    public ReservationBatchResult(int index, Status status, ReservationDTO reservation, String message) {
+        this.index = index;
+        this.status = status;
+        this.reservation = reservation;
+        this.message = message;
+    }
+
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public ReservationDTO getReservation() { return reservation; }
+    public void setReservation(ReservationDTO reservation) { this.reservation = reservation; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+}
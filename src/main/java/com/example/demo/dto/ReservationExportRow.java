@@ -0,0 +1,17 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Reservation;
+
+import java.time.LocalDate;
+
+// One reservation of the export: the same fields, in the same order, as a CSV line
+public record ReservationExportRow(Long id, String customerName, Long roomId, String roomNumber,
+                                   LocalDate checkInDate, LocalDate checkOutDate, boolean paymentStatus) {
+
+    public static ReservationExportRow of(Reservation reservation) {
+        return new ReservationExportRow(reservation.getId(), reservation.getCustomerName(),
+                reservation.getRoom() != null ? reservation.getRoom().getId() : null,
+                reservation.getRoom() != null ? reservation.getRoom().getRoomNumber() : null,
+                reservation.getCheckInDate(), reservation.getCheckOutDate(), reservation.isPaymentStatus());
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Reservation;
+
+import java.time.LocalDate;
+
+// Minimal projection of a reservation: only what is needed to know when a room is occupied
+public record ReservationStay(Long id, Long roomId, LocalDate checkInDate, LocalDate checkOutDate) {
+
+    public static ReservationStay of(Reservation reservation) {
+        return new ReservationStay(reservation.getId(),
+                reservation.getRoom() != null ? reservation.getRoom().getId() : null,
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+
+    public static ReservationStay of(ReservationDTO reservation) {
+        return new ReservationStay(reservation.getId(), reservation.getRoomId(),
+                reservation.getCheckInDate(), reservation.getCheckOutDate());
+    }
+}
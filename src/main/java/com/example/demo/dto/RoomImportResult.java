@@ -0,0 +1,47 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Summary of a POST /api/rooms/bulk import; row numbers start at 1 in input order
+public class RoomImportResult {
+
+    // Only the first errors are listed, failed still counts all of them
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private int created;
+    private int updated;
+    private int failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addCreated(int count) { created += count; }
+    public void addUpdated(int count) { updated += count; }
+
+    public void addError(int row, String roomNumber, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, roomNumber, message));
+        }
+    }
+
+    public int getCreated() { return created; }
+    public int getUpdated() { return updated; }
+    public int getFailed() { return failed; }
+    public List<RowError> getErrors() { return errors; }
+
+    public static class RowError {
+        private final int row;
+        private final String roomNumber;
+        private final String message;
+
+        public RowError(int row, String roomNumber, String message) {
+            this.row = row;
+            this.roomNumber = roomNumber;
+            this.message = message;
+        }
+
+        public int getRow() { return row; }
+        public String getRoomNumber() { return roomNumber; }
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.HotelRoom;
+
+// A search result: the room, plus what the searched stay costs in it when dates were given
+public record RoomOffer(Long id, String roomNumber, String category, boolean available, double pricePerNight,
+                        Long stayTotalCents) {
+
+    public static RoomOffer of(HotelRoom room, Long stayTotalCents) {
+        return new RoomOffer(room.getId(), room.getRoomNumber(), room.getCategory(), room.isAvailable(),
+                room.getPricePerNight(), stayTotalCents);
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.demo.dto;
+
+// Minimal projection of a room: what pricing a stay needs
+public record RoomPrice(Long id, String category, double pricePerNight) {
+}
@@ -0,0 +1,5 @@
+package com.example.demo.dto;
+
+// Minimal projection of a room: what the dashboard figures need
+public record RoomRate(Long id, boolean available, double pricePerNight) {
+}
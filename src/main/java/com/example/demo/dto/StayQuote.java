@@ -0,0 +1,8 @@
+package com.example.demo.dto;
+
+import java.time.LocalDate;
+
+// Price of the nights from checkIn up to (not including) checkOut. totalCents is null when the
+// room does not exist or checkOut is before checkIn
+public record StayQuote(Long roomId, LocalDate checkIn, LocalDate checkOut, long nights, Long totalCents) {
+}
@@ -1,15 +1,30 @@
 package com.example.demo.entity;
 
+import com.example.demo.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+// Rooms change a few times a day and are read on every search and reservation listing,
+// so they are served from the second-level cache (see SecondLevelCacheConfig)
 @Entity
 @Table(name = "hotel_room")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.ROOM_REGION)
+@NaturalIdCache(region = SecondLevelCacheConfig.ROOM_NUMBER_REGION)
 public class HotelRoom {
 
+    // Pooled table ids instead of IDENTITY, so bulk imports can batch their inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "hotel_room_id")
+    @TableGenerator(name = "hotel_room_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "hotel_room", allocationSize = 50)
     private Long id;
 
+    // Room numbers can be edited, hence mutable
+    @NaturalId(mutable = true)
     @Column(nullable = false, unique = true)
     private String roomNumber;
 
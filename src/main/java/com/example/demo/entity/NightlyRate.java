@@ -0,0 +1,75 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * The price of some nights of one room (roomId set) or of every room in a category (category
+ * set), overriding the room's pricePerNight. Prices are kept in cents. See V8__nightly_rate.sql
+ * for how overlapping rates combine; the calendar built from them is RateCalendar.
+ */
+@Entity
+@Table(name = "nightly_rate")
+public class NightlyRate {
+
+    public static final int ALL_DAYS = 0b111_1111;
+    public static final int WEEKEND = mask(DayOfWeek.FRIDAY) | mask(DayOfWeek.SATURDAY);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "nightly_rate_id")
+    @TableGenerator(name = "nightly_rate_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "nightly_rate", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "room_id")
+    private Long roomId;
+
+    @Column(length = 20)
+    private String category;
+
+    @Column(nullable = false)
+    private LocalDate firstNight;
+
+    @Column(nullable = false)
+    private LocalDate lastNight;
+
+    // Bit 0 = Monday ... bit 6 = Sunday
+    @Column(nullable = false)
+    private int daysOfWeek = ALL_DAYS;
+
+    @Column(nullable = false)
+    private long priceCents;
+
+    public NightlyRate() {}
+
+    public static int mask(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    public boolean appliesOn(DayOfWeek day) {
+        return (daysOfWeek & mask(day)) != 0;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public LocalDate getFirstNight() { return firstNight; }
+    public void setFirstNight(LocalDate firstNight) { this.firstNight = firstNight; }
+
+    public LocalDate getLastNight() { return lastNight; }
+    public void setLastNight(LocalDate lastNight) { this.lastNight = lastNight; }
+
+    public int getDaysOfWeek() { return daysOfWeek; }
+    public void setDaysOfWeek(int daysOfWeek) { this.daysOfWeek = daysOfWeek; }
+
+    public long getPriceCents() { return priceCents; }
+    public void setPriceCents(long priceCents) { this.priceCents = priceCents; }
+}
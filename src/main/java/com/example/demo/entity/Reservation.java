@@ -2,18 +2,28 @@ package com.example.demo.entity;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.util.Locale;
 
 @Entity
 @Table(name = "reservation")
 public class Reservation {
 
+    // Pooled table ids instead of IDENTITY, so Hibernate can batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reservation_id")
+    @TableGenerator(name = "reservation_id", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "reservation", allocationSize = 50)
     private Long id;
 
     private String customerName;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    // Lower-cased copy of customerName, so name searches can use a plain index
+    @Column(name = "customer_name_normalized", length = 100)
+    private String customerNameNormalized;
+
+    // Lazy: listings read the room id from the foreign key (see ReservationRepository), and the
+    // queries that need the room itself fetch it explicitly
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "room_id", nullable = false)
     private HotelRoom room;
 
@@ -32,6 +42,16 @@ public class Reservation {
         this.paymentStatus = paymentStatus;
     }
 
+    @PrePersist
+    @PreUpdate
+    void normalizeCustomerName() {
+        customerNameNormalized = normalizeName(customerName);
+    }
+
+    public static String normalizeName(String name) {
+        return name != null ? name.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -0,0 +1,62 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One occupied night of one room. The primary key is (room_id, night), so the database itself
+ * rejects a second reservation claiming a night that is already taken, whichever app instance
+ * inserts it.
+ */
+@Entity
+@Table(name = "room_night")
+public class RoomNight implements Persistable<RoomNightId> {
+
+    @EmbeddedId
+    private RoomNightId id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "reservation_id", nullable = false)
+    private Reservation reservation;
+
+    // Always INSERT, never merge: a merge would silently take over a night owned by another stay
+    @Transient
+    private boolean isNew = true;
+
+    public RoomNight() {}
+
+    public RoomNight(Long roomId, LocalDate night, Reservation reservation) {
+        this.id = new RoomNightId(roomId, night);
+        this.reservation = reservation;
+    }
+
+    // Every date from check-in to check-out, both included, like ReservationService.hasDateConflict
+    public static List<RoomNight> coveringStay(Reservation reservation) {
+        List<RoomNight> nights = new ArrayList<>();
+        Long roomId = reservation.getRoom().getId();
+        for (LocalDate night = reservation.getCheckInDate();
+             !night.isAfter(reservation.getCheckOutDate());
+             night = night.plusDays(1)) {
+            nights.add(new RoomNight(roomId, night, reservation));
+        }
+        return nights;
+    }
+
+    @Override
+    public RoomNightId getId() { return id; }
+
+    public Reservation getReservation() { return reservation; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+}
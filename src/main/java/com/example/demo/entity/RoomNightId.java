@@ -0,0 +1,48 @@
+package com.example.demo.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+@Embeddable
+public class RoomNightId implements Serializable {
+
+    @Column(name = "room_id", nullable = false)
+    private Long roomId;
+
+    @Column(nullable = false)
+    private LocalDate night;
+
+    public RoomNightId() {}
+
+    public RoomNightId(Long roomId, LocalDate night) {
+        this.roomId = roomId;
+        this.night = night;
+    }
+
+    public Long getRoomId() { return roomId; }
+    public LocalDate getNight() { return night; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof RoomNightId other)) return false;
+        return Objects.equals(roomId, other.roomId) && Objects.equals(night, other.night);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(roomId, night);
+    }
+
+    @Override
+    public String toString() {
+        return "RoomNightId{" +
+                "roomId=" + roomId +
+                ", night=" + night +
+                '}';
+    }
+}
@@ -20,6 +20,10 @@ public class UserInfo {
 
     private String roles;
 
+    // Tokens carry the version they were issued under; bumping it revokes all of them
+    @Column(nullable = false)
+    private int tokenVersion;
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
@@ -34,4 +38,7 @@ public class UserInfo {
 
     public String getRoles() { return roles; }
     public void setRoles(String roles) { this.roles = roles; }
+
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
 }
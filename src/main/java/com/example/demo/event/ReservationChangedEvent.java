@@ -0,0 +1,8 @@
+package com.example.demo.event;
+
+import com.example.demo.dto.ReservationDTO;
+
+// Published once a reservation write has been committed: before is null for a new reservation,
+// after is null for a deleted one
+public record ReservationChangedEvent(ReservationDTO before, ReservationDTO after) {
+}
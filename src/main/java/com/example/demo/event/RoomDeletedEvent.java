@@ -0,0 +1,5 @@
+package com.example.demo.event;
+
+// Published once a room deletion has been committed
+public record RoomDeletedEvent(Long roomId) {
+}
@@ -0,0 +1,14 @@
+package com.example.demo.event;
+
+import com.example.demo.entity.HotelRoom;
+
+// Published once a created or updated room has been committed. Holds a copy of the room's
+// columns, so listeners never touch the entity (or a lazy proxy of it) outside its session
+public record RoomSavedEvent(Long roomId, String roomNumber, String category, boolean available,
+                             double pricePerNight, boolean created) {
+
+    public static RoomSavedEvent of(HotelRoom room, boolean created) {
+        return new RoomSavedEvent(room.getId(), room.getRoomNumber(), room.getCategory(),
+                room.isAvailable(), room.getPricePerNight(), created);
+    }
+}
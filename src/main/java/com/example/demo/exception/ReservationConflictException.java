@@ -0,0 +1,14 @@
+package com.example.demo.exception;
+
+// Thrown when a stay is refused because one of its nights is already taken, by the database or by
+// the availability check in front of it
+public class ReservationConflictException extends RuntimeException {
+
+    public ReservationConflictException(String message) {
+        super(message);
+    }
+
+    public ReservationConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
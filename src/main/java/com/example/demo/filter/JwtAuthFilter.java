@@ -1,61 +1,124 @@
 package com.example.demo.filter;
 
+import com.example.demo.config.UserInfoUserDetails;
 import com.example.demo.config.UserInfoUserDetailsService;
 import com.example.demo.service.JwtService;
+import com.example.demo.service.TokenVersionRegistry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.aspectj.weaver.patterns.IToken;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
 
+    public static final String TIMER = "hotel.security.jwt.filter";
+
     @Autowired
     private JwtService jwtService;
 
     @Autowired
     private UserInfoUserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
 
-    //extract token and username
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtService.extractUsername(token);
-        }
-
+    @Autowired
+    private MeterRegistry meterRegistry;
 
+    // Trust the roles inside the token instead of loading the user (tokens without roles still do)
+    @Value("${hotel.security.jwt.stateless:true}")
+    private boolean stateless;
 
 
 
+    //extract token, verify it once and cache the result until it expires
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = authenticate(request);
+        // Only the token handling is timed, not the rest of the request
+        sample.stop(meterRegistry.timer(TIMER, "outcome", outcome));
+        filterChain.doFilter(request, response);
+    }
 
+    // Returns how the request was handled: none (no token), cached, verified or rejected
+    private String authenticate(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return "none";
+        }
+        String token = authHeader.substring(7);
+        VerifiedTokenCache.VerifiedToken verified = verifiedTokenCache.get(token);
+        String outcome = "cached";
+        if (verified == null) {
+            verified = verify(token);
+            outcome = "verified";
+        }
+        if (verified == null || !isNotRevoked(verified)) {
+            return "rejected";
+        }
+        UserDetails userDetails = userOf(verified);
+        if (userDetails == null) {
+            return "rejected";
+        }
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
+        return outcome;
+    }
 
+    // One signature check; a bad token leaves the request anonymous
+    @SuppressWarnings("unchecked")
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        try {
+            Claims claims = jwtService.verify(token);
+            List<String> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+            UserDetails claimsUser = stateless && roles != null ? new UserInfoUserDetails(claims.getSubject(), roles) : null;
+            VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken(claims.getSubject(),
+                    claimsUser, claims.get(JwtService.TOKEN_VERSION_CLAIM, Integer.class), claims.getExpiration().toInstant());
+            verifiedTokenCache.put(token, verified);
+            return verified;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 
-//load UserDetail using username
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            //check username and exp date
-            if (jwtService.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+    // The roles from the token, or else the user from the (short lived) user cache
+    private UserDetails userOf(VerifiedTokenCache.VerifiedToken verified) {
+        if (verified.claimsUser() != null) {
+            return verified.claimsUser();
         }
-        filterChain.doFilter(request, response);
+        try {
+            return userDetailsService.loadUserByUsernameCached(verified.username());
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+    }
+
+    // In-memory check, done on every request so cached tokens are revoked too
+    private boolean isNotRevoked(VerifiedTokenCache.VerifiedToken verified) {
+        return verified.tokenVersion() == null
+                || tokenVersionRegistry.isCurrent(verified.username(), verified.tokenVersion());
     }
-}
\ No newline at end of file
+}
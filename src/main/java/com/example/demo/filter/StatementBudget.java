@@ -0,0 +1,15 @@
+package com.example.demo.filter;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most JDBC statements one call to the annotated handler should need; going over is counted in
+// hotel.db.statement-budget.violations and logged to "hotel.sql", see StatementBudgetInterceptor
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementBudget {
+
+    int value();
+}
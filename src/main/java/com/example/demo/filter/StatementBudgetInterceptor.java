@@ -0,0 +1,79 @@
+package com.example.demo.filter;
+
+import com.example.demo.service.StatementCounter;
+import com.example.demo.service.StatementLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Counts the JDBC statements each request runs and records them per endpoint in the
+ * hotel.db.statements summary (tagged with the same uri and method as http.server.requests).
+ * Handlers annotated with {@link StatementBudget} are also checked against their budget.
+ *
+ * Only the handler itself is counted: statements made by filters in front of it (the token
+ * check, mainly) are not part of an endpoint's cost.
+ */
+@Component
+public class StatementBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATEMENTS = "hotel.db.statements";
+    public static final String VIOLATIONS = "hotel.db.statement-budget.violations";
+
+    private static final String SCOPE = StatementBudgetInterceptor.class.getName() + ".scope";
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private StatementLog statementLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async re-dispatch of a streamed response was counted when the request went async
+        if (handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(SCOPE, statementCounter.open());
+        }
+        return true;
+    }
+
+    // Streaming responses finish on another thread: count what the request thread did
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        afterCompletion(request, response, handler, null);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(SCOPE) instanceof StatementCounter.Scope scope)) {
+            return;
+        }
+        request.removeAttribute(SCOPE);
+        scope.close();
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        DistributionSummary.builder(STATEMENTS)
+                .baseUnit("statements")
+                .tag("uri", uri)
+                .tag("method", request.getMethod())
+                .register(meterRegistry)
+                .record(scope.count());
+
+        StatementBudget budget = ((HandlerMethod) handler).getMethodAnnotation(StatementBudget.class);
+        if (budget != null && scope.count() > budget.value()) {
+            meterRegistry.counter(VIOLATIONS, "uri", uri, "method", request.getMethod()).increment();
+            statementLog.budgetExceeded(request.getMethod() + " " + uri, scope.count(), budget.value());
+        }
+    }
+}
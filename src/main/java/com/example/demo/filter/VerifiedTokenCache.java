@@ -0,0 +1,76 @@
+package com.example.demo.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens that already passed signature and expiry checks, keyed by their SHA-256 so raw tokens
+ * are not kept in memory. Every entry is dropped when its token expires; the size bound keeps
+ * a flood of distinct tokens from growing the heap.
+ *
+ * Only what the token itself says is kept. A token without roles names a user who is looked up
+ * (in the short lived user cache) on every request, so role changes reach it within that cache's
+ * TTL instead of the token's lifetime.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${hotel.security.token-cache.max-size:100000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long millis = value.expiresAt().toEpochMilli() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, millis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public VerifiedToken get(String token) {
+        VerifiedToken verified = cache.getIfPresent(hash(token));
+        // expiry is checked lazily by the cache, so double check before trusting the entry
+        return verified != null && verified.expiresAt().isAfter(Instant.now()) ? verified : null;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        cache.put(hash(token), verified);
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // claimsUser is the user built from the token's roles, null when the token carries none;
+    // tokenVersion is null for tokens issued without a version claim
+    public record VerifiedToken(String username, UserDetails claimsUser, Integer tokenVersion, Instant expiresAt) {}
+}
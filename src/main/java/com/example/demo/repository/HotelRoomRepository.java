@@ -1,19 +1,64 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.RoomPrice;
+import com.example.demo.dto.RoomRate;
 import com.example.demo.entity.HotelRoom;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface HotelRoomRepository extends JpaRepository<HotelRoom, Long> {
 
+    // The catalog reads below go through the query cache: it keeps the matching ids until the
+    // next write to hotel_room, and the rooms themselves come from the entity cache
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<HotelRoom> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<HotelRoom> findByAvailableTrue();
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<HotelRoom> findByCategoryIgnoreCase(String category);
 
     Optional<HotelRoom> findByRoomNumber(String roomNumber); // ✅ Added for getRoomByNumber()
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByAvailableTrue();
 
+    List<HotelRoom> findByRoomNumberIn(Collection<String> roomNumbers);
+
+    @Query("SELECT new com.example.demo.dto.RoomRate(r.id, r.available, r.pricePerNight) FROM HotelRoom r")
+    List<RoomRate> findAllRates();
+
+    @Query("SELECT new com.example.demo.dto.RoomPrice(r.id, r.category, r.pricePerNight) FROM HotelRoom r")
+    List<RoomPrice> findAllPrices();
+
+    // Keyset page in id order, see ReservationRepository.findDtoPageAfter
+    List<HotelRoom> findByIdGreaterThanOrderByIdAsc(Long after, Limit limit);
+
+    // Set-based search: every filter, including the date overlap, runs in a single statement.
+    // A null argument disables its filter; the date filter needs both checkIn and checkOut.
+    @Query("SELECT r FROM HotelRoom r WHERE r.available = true " +
+            "AND (:category IS NULL OR LOWER(r.category) = LOWER(:category)) " +
+            "AND (:minPrice IS NULL OR r.pricePerNight >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR r.pricePerNight <= :maxPrice) " +
+            "AND (:checkIn IS NULL OR :checkOut IS NULL OR NOT EXISTS (" +
+            "SELECT 1 FROM Reservation res WHERE res.room = r " +
+            "AND res.checkInDate <= :checkOut AND res.checkOutDate >= :checkIn))")
+    List<HotelRoom> searchAvailable(@Param("category") String category,
+                                    @Param("minPrice") Double minPrice,
+                                    @Param("maxPrice") Double maxPrice,
+                                    @Param("checkIn") LocalDate checkIn,
+                                    @Param("checkOut") LocalDate checkOut);
+
 }
@@ -0,0 +1,12 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.NightlyRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface NightlyRateRepository extends JpaRepository<NightlyRate, Long> {
+
+    // Oldest first: RateCalendar applies them in this order, so newer rates win
+    List<NightlyRate> findAllByOrderByIdAsc();
+}
@@ -1,23 +1,95 @@
 package com.example.demo.repository;
 
+import com.example.demo.dto.ReservationDTO;
+import com.example.demo.dto.ReservationStay;
 import com.example.demo.entity.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
 
-    @Query("SELECT r FROM Reservation r JOIN FETCH r.room")
-    List<Reservation> findAllWithRoom();
+    // The listings below select the six DTO columns straight into ReservationDTO: r.room.id is the
+    // foreign key column, so no room is joined or loaded and nothing enters the persistence context
+    String DTO = "SELECT new com.example.demo.dto.ReservationDTO(r.id, r.customerName, r.room.id, " +
+            "r.checkInDate, r.checkOutDate, r.paymentStatus) FROM Reservation r ";
 
-    List<Reservation> findByCustomerNameIgnoreCase(String name);
+    @Query(DTO)
+    List<ReservationDTO> findAllDtos();
 
-    List<Reservation> findByRoomId(Long roomId);
+    // Every reservation, read through a JDBC cursor a batch of rows at a time (the MySQL URL needs
+    // useCursorFetch=true for the fetch size to apply). Must be consumed inside a transaction and closed.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.room ORDER BY r.id")
+    Stream<Reservation> streamAllWithRoom();
 
-    List<Reservation> findByCheckInDateBetween(LocalDate start, LocalDate end);
+    // Keyset page: seeks on the primary key index, so every page costs the same however deep it is
+    @Query(DTO + "WHERE r.id > :after ORDER BY r.id")
+    List<ReservationDTO> findDtoPageAfter(@Param("after") long after, Limit limit);
 
-    long countByCheckOutDateAfterOrCheckOutDateEquals(LocalDate after, LocalDate sameDay);
+    @Query("SELECT new com.example.demo.dto.ReservationStay(r.id, r.room.id, r.checkInDate, r.checkOutDate) FROM Reservation r")
+    List<ReservationStay> findAllStays();
+
+    @Query("SELECT new com.example.demo.dto.ReservationStay(r.id, r.room.id, r.checkInDate, r.checkOutDate) FROM Reservation r WHERE r.room.id = :roomId")
+    List<ReservationStay> findStaysByRoomId(@Param("roomId") Long roomId);
+
+    // Reads the stored row even when the entity is already loaded (and modified) in the current session
+    @Query(DTO + "WHERE r.id = :id")
+    Optional<ReservationDTO> findDtoById(@Param("id") Long id);
+
+    // For changes that touch the room as well (deleting a stay frees the room)
+    @Query("SELECT r FROM Reservation r JOIN FETCH r.room WHERE r.id = :id")
+    Optional<Reservation> findWithRoomById(@Param("id") Long id);
+
+    // Stays covering the given night, found through idx_reservation_check_out (only current and future stays qualify)
+    @Query("SELECT new com.example.demo.dto.ReservationStay(r.id, r.room.id, r.checkInDate, r.checkOutDate) FROM Reservation r " +
+            "WHERE r.checkOutDate >= :date AND r.checkInDate <= :date")
+    List<ReservationStay> findStaysCovering(@Param("date") LocalDate date);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM Reservation r WHERE NOT EXISTS (SELECT 1 FROM RoomNight n WHERE n.reservation = r)")
+    List<Reservation> findWithoutNights();
+
+    // Pass Reservation.normalizeName(name): equality on the indexed lower-cased column
+    @Query(DTO + "WHERE r.customerNameNormalized = :name")
+    List<ReservationDTO> findByCustomerNameNormalized(@Param("name") String normalizedName);
+
+    // idx_reservation_room_stay. Filters on the foreign key column: a derived query would join
+    // hotel_room for its id, which leaves the database scanning reservation
+    @Query(DTO + "WHERE r.room.id = :roomId")
+    List<ReservationDTO> findByRoomId(@Param("roomId") Long roomId);
+
+    // idx_reservation_check_in
+    @Query(DTO + "WHERE r.checkInDate BETWEEN :start AND :end")
+    List<ReservationDTO> findByCheckInDateBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+    // idx_reservation_check_out: a single range instead of "after OR equals"
+    long countByCheckOutDateGreaterThanEqual(LocalDate date);
+
+    // Same overlap rule as ReservationService.hasDateConflict, answered from idx_reservation_room_stay
+    @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.room.id = :roomId " +
+            "AND r.checkInDate <= :checkOut AND r.checkOutDate >= :checkIn")
+    boolean existsOverlapping(@Param("roomId") Long roomId,
+                              @Param("checkIn") LocalDate checkIn,
+                              @Param("checkOut") LocalDate checkOut);
+
+    @Query("SELECT COUNT(r) > 0 FROM Reservation r WHERE r.room.id = :roomId " +
+            "AND r.checkInDate <= :checkOut AND r.checkOutDate >= :checkIn AND r.id <> :reservationId")
+    boolean existsOverlappingOther(@Param("roomId") Long roomId,
+                                   @Param("checkIn") LocalDate checkIn,
+                                   @Param("checkOut") LocalDate checkOut,
+                                   @Param("reservationId") Long reservationId);
 
 }
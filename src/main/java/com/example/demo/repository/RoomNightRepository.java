@@ -0,0 +1,16 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.RoomNight;
+import com.example.demo.entity.RoomNightId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface RoomNightRepository extends JpaRepository<RoomNight, RoomNightId> {
+
+    @Modifying
+    @Query("DELETE FROM RoomNight n WHERE n.reservation.id = :reservationId")
+    int deleteByReservationId(@Param("reservationId") Long reservationId);
+
+}
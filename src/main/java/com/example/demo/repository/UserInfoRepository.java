@@ -2,9 +2,15 @@ package com.example.demo.repository;
 
 import com.example.demo.entity.UserInfo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
 public interface UserInfoRepository extends JpaRepository<UserInfo, Long> {
+
+    // Credentials and token versions come from the primary: a user who just signed up, changed
+    // their password or was revoked may not have reached the read replica yet. A caller's
+    // read-only transaction would still win, so callers do not open one.
+    @Transactional
     Optional<UserInfo> findByName(String name);
 }
@@ -0,0 +1,213 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ReservationDTO;
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.event.ReservationChangedEvent;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes every committed room and reservation change to the connected clients as Server-Sent
+ * Events, so their screens can apply the change instead of reloading whole lists.
+ *
+ * Each change is serialized once, numbered, and kept in a replay buffer of the last
+ * hotel.changes.replay-size changes. A client reconnecting with Last-Event-ID gets the changes
+ * it missed; when its id is no longer in the buffer it gets a single "reset" event and reloads.
+ * Events go out on one dispatcher thread, so a slow client never holds up the write that
+ * produced the change, and every client sees the changes in id order.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final String ROOM_CREATED = "room-created";
+    public static final String ROOM_UPDATED = "room-updated";
+    public static final String ROOM_DELETED = "room-deleted";
+    public static final String RESERVATION_BOOKED = "reservation-booked";
+    public static final String RESERVATION_UPDATED = "reservation-updated";
+    public static final String RESERVATION_PAID = "reservation-paid";
+    public static final String RESERVATION_CANCELLED = "reservation-cancelled";
+    public static final String RESET = "reset";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${hotel.changes.replay-size:1000}")
+    private int replaySize;
+
+    @Value("${hotel.changes.emitter-timeout:30m}")
+    private Duration emitterTimeout;
+
+    // Guards buffer and lastId, and keeps dispatching in id order
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Change> buffer = new ArrayDeque<>();
+    // Seeded from the clock, so ids keep growing across restarts and an id handed out
+    // before a restart is never mistaken for a newer change
+    private long lastId = System.currentTimeMillis();
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    record Change(long id, String type, String data) {
+    }
+
+    // Opens a feed for one client. lastEventId is the last event it received, if it is reconnecting
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+
+        // Holding the subscriber while registering it keeps the dispatcher from sending it
+        // anything newer before the replay has gone out
+        subscriber.lock.lock();
+        try {
+            List<Change> missed = new ArrayList<>();
+            long current;
+            boolean reset;
+            lock.lock();
+            try {
+                current = lastId;
+                long oldestReplayable = buffer.isEmpty() ? lastId + 1 : buffer.getFirst().id();
+                reset = lastEventId != null && (lastEventId > lastId || lastEventId < oldestReplayable - 1);
+                if (lastEventId != null && !reset) {
+                    buffer.stream().filter(change -> change.id() > lastEventId).forEach(missed::add);
+                }
+                subscribers.add(subscriber);
+            } finally {
+                lock.unlock();
+            }
+            if (reset) {
+                subscriber.send(new Change(current, RESET, "{}"));
+            }
+            missed.forEach(subscriber::send);
+            subscriber.lastSent = current;
+        } finally {
+            subscriber.lock.unlock();
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public void onRoomSaved(RoomSavedEvent event) {
+        HotelRoom room = new HotelRoom(event.roomNumber(), event.category(), event.available(), event.pricePerNight());
+        room.setId(event.roomId());
+        publish(event.created() ? ROOM_CREATED : ROOM_UPDATED, room);
+    }
+
+    @EventListener
+    public void onRoomDeleted(RoomDeletedEvent event) {
+        publish(ROOM_DELETED, Map.of("id", event.roomId()));
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        ReservationDTO before = event.before();
+        ReservationDTO after = event.after();
+        if (after == null) {
+            publish(RESERVATION_CANCELLED, Map.of("id", before.getId()));
+        } else if (before == null) {
+            publish(RESERVATION_BOOKED, after);
+        } else if (!before.isPaymentStatus() && after.isPaymentStatus()) {
+            publish(RESERVATION_PAID, after);
+        } else {
+            publish(RESERVATION_UPDATED, after);
+        }
+    }
+
+    // Comment lines keep idle connections open through proxies and reveal clients that went away
+    @Scheduled(fixedRateString = "${hotel.changes.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.forEach(Subscriber::ping));
+    }
+
+    @PreDestroy
+    void close() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void publish(String type, Object payload) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + type + " change", e);
+        }
+        lock.lock();
+        try {
+            Change change = new Change(++lastId, type, data);
+            buffer.addLast(change);
+            if (buffer.size() > replaySize) {
+                buffer.removeFirst();
+            }
+            dispatcher.execute(() -> subscribers.forEach(subscriber -> subscriber.send(change)));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Locked with a ReentrantLock rather than synchronized: emitter.send writes to the socket, and a
+    // virtual thread blocked inside a monitor stays pinned to its carrier
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long lastSent;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void send(Change change) {
+            lock.lock();
+            try {
+                if (change.id() <= lastSent) {
+                    return;
+                }
+                emitter.send(SseEmitter.event().id(String.valueOf(change.id())).name(change.type()).data(change.data()));
+                lastSent = change.id();
+            } catch (IOException | IllegalStateException e) {
+                // the client is gone; the container completes the emitter
+                subscribers.remove(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void ping() {
+            lock.lock();
+            try {
+                emitter.send(SseEmitter.event().comment("keep-alive"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.dto.ReservationStay;
+import com.example.demo.dto.RoomRate;
+import com.example.demo.event.ReservationChangedEvent;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Dashboard figures kept in memory: loaded from the database once, then moved along by the
+ * room and reservation events published after every committed write, so reading them costs
+ * no query. A background reconciliation reloads everything from the database every
+ * hotel.stats.reconcile-interval, which also corrects any drift from a write that raced with
+ * the previous reload. The first read of a new day reloads right away, since today's figures
+ * (occupancy, revenue, active bookings) depend on the date.
+ *
+ * Today's revenue is what the occupied rooms charge for tonight, priced by the {@link RateCalendar}
+ * like quotes and bookings (the room's pricePerNight where no nightly rate applies).
+ */
+@Service
+public class DashboardStatsService {
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RateCalendar rateCalendar;
+
+    // Guards the counters below. Reads never take it: they return the last published snapshot
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private LocalDate day;
+    private final Map<Long, RoomRate> rooms = new HashMap<>();
+    private long availableRooms;
+    private long totalReservations;
+    private long activeReservations;
+    // room id -> id of the reservation whose stay covers `day`
+    private final Map<Long, Long> occupiedToday = new HashMap<>();
+    // room id -> cents its night of `day` added to the revenue
+    private final Map<Long, Long> revenueByRoom = new HashMap<>();
+    private long revenueTodayCents;
+
+    private volatile DashboardStats snapshot;
+
+    public DashboardStats getStats() {
+        DashboardStats current = snapshot;
+        if (current == null || !current.getDate().equals(LocalDate.now())) {
+            reconcile();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${hotel.stats.reconcile-interval:PT5M}", initialDelayString = "${hotel.stats.reconcile-interval:PT5M}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        List<RoomRate> roomRates = hotelRoomRepository.findAllRates();
+        long reservations = reservationRepository.count();
+        long active = reservationRepository.countByCheckOutDateGreaterThanEqual(today);
+        List<ReservationStay> staysToday = reservationRepository.findStaysCovering(today);
+
+        lock.lock();
+        try {
+            day = today;
+            rooms.clear();
+            availableRooms = 0;
+            for (RoomRate room : roomRates) {
+                rooms.put(room.id(), room);
+                if (room.available()) {
+                    availableRooms++;
+                }
+            }
+            totalReservations = reservations;
+            activeReservations = active;
+            occupiedToday.clear();
+            revenueByRoom.clear();
+            revenueTodayCents = 0;
+            staysToday.forEach(this::occupy);
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onRoomSaved(RoomSavedEvent event) {
+        lock.lock();
+        try {
+            if (day == null) {
+                return;
+            }
+            RoomRate before = rooms.put(event.roomId(), new RoomRate(event.roomId(), event.available(), event.pricePerNight()));
+            if (before != null && before.available()) {
+                availableRooms--;
+            }
+            if (event.available()) {
+                availableRooms++;
+            }
+            if (occupiedToday.containsKey(event.roomId())) {
+                // Priced from the event, whichever of the calendar and this listener sees it first
+                long night = tonight(rateCalendar.forRoom(event.roomId(), event.category(), event.pricePerNight()));
+                Long charged = revenueByRoom.put(event.roomId(), night);
+                revenueTodayCents += night - (charged != null ? charged : 0);
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // After nightly rates were added or removed: tonight's price of every occupied room again
+    public void onRatesChanged() {
+        lock.lock();
+        try {
+            if (day == null) {
+                return;
+            }
+            revenueByRoom.clear();
+            revenueTodayCents = 0;
+            occupiedToday.keySet().forEach(this::charge);
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onRoomDeleted(RoomDeletedEvent event) {
+        lock.lock();
+        try {
+            if (day == null) {
+                return;
+            }
+            RoomRate before = rooms.remove(event.roomId());
+            if (before != null && before.available()) {
+                availableRooms--;
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        lock.lock();
+        try {
+            if (day == null) {
+                return;
+            }
+            if (event.before() != null) {
+                ReservationStay before = ReservationStay.of(event.before());
+                totalReservations--;
+                if (isActive(before)) {
+                    activeReservations--;
+                }
+                if (covers(before, day)) {
+                    vacate(before);
+                }
+            }
+            if (event.after() != null) {
+                ReservationStay after = ReservationStay.of(event.after());
+                totalReservations++;
+                if (isActive(after)) {
+                    activeReservations++;
+                }
+                if (covers(after, day)) {
+                    occupy(after);
+                }
+            }
+            publish();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void occupy(ReservationStay stay) {
+        if (occupiedToday.put(stay.roomId(), stay.id()) == null) {
+            charge(stay.roomId());
+        }
+    }
+
+    private void vacate(ReservationStay stay) {
+        if (occupiedToday.remove(stay.roomId(), stay.id())) {
+            Long charged = revenueByRoom.remove(stay.roomId());
+            revenueTodayCents -= charged != null ? charged : 0;
+        }
+    }
+
+    private void charge(Long roomId) {
+        RateCalendar.RoomPricing pricing = rateCalendar.forRoom(roomId);
+        long night = pricing != null ? tonight(pricing) : listPriceCentsOf(roomId);
+        revenueByRoom.put(roomId, night);
+        revenueTodayCents += night;
+    }
+
+    private long tonight(RateCalendar.RoomPricing pricing) {
+        return pricing.total(day, day.plusDays(1));
+    }
+
+    private boolean isActive(ReservationStay stay) {
+        return stay.checkOutDate() != null && !stay.checkOutDate().isBefore(day);
+    }
+
+    // Both ends included, as everywhere else in booking
+    private static boolean covers(ReservationStay stay, LocalDate date) {
+        return stay.roomId() != null && stay.checkInDate() != null && stay.checkOutDate() != null
+                && !stay.checkInDate().isAfter(date) && !stay.checkOutDate().isBefore(date);
+    }
+
+    // A room the calendar has not seen yet
+    private long listPriceCentsOf(Long roomId) {
+        RoomRate room = rooms.get(roomId);
+        return room != null ? cents(room.pricePerNight()) : 0;
+    }
+
+    // Revenue is summed in cents so adding and removing prices never drifts
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    private void publish() {
+        snapshot = new DashboardStats(day, rooms.size(), availableRooms, occupiedToday.size(),
+                revenueTodayCents / 100.0, totalReservations, activeReservations);
+    }
+}
@@ -1,15 +1,25 @@
 package com.example.demo.service;
 
 import com.example.demo.entity.HotelRoom;
-import com.example.demo.entity.Reservation;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
 import com.example.demo.repository.HotelRoomRepository;
 import com.example.demo.repository.ReservationRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,53 +31,121 @@ public class HotelRoomService {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired(required = false)
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
     public List<HotelRoom> getAllRooms() {
         return hotelRoomRepository.findAll();
     }
 
+    // Up to limit rooms with an id above after, in id order
+    @Transactional(readOnly = true)
+    public List<HotelRoom> getRoomsAfter(long after, int limit) {
+        return hotelRoomRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    // On the primary: callers write the room back or book it, so a lagging replica must not
+    // answer. Rooms are in the second-level cache, so most lookups run no query at all
+    @Transactional
     public Optional<HotelRoom> getRoomById(Long id) {
         return hotelRoomRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public List<HotelRoom> getRoomsById(Collection<Long> ids) {
+        return hotelRoomRepository.findAllById(ids);
+    }
+
+    // Natural id lookup: answered from the room number cache, no query once the room is cached.
+    // Hibernate evicts a deleted room's number instead of locking it, so a session that read the
+    // room just before the delete (the catalog rebuild, another request) can cache the number
+    // again, pointing at the deleted row. A miss is therefore checked against the table, and a
+    // number found there drops the stale resolutions.
     public Optional<HotelRoom> getRoomByNumber(String roomNumber) {
-        return hotelRoomRepository.findByRoomNumber(roomNumber);
+        return transactionTemplate.execute(status -> {
+            Session session = entityManager.unwrap(Session.class);
+            Optional<HotelRoom> cached = session.bySimpleNaturalId(HotelRoom.class).loadOptional(roomNumber);
+            if (cached.isPresent() && roomNumber.equals(cached.get().getRoomNumber())) {
+                return cached;
+            }
+            Optional<HotelRoom> stored = hotelRoomRepository.findByRoomNumber(roomNumber);
+            if (stored.isPresent()) {
+                session.getSessionFactory().getCache().evictNaturalIdData(HotelRoom.class);
+            }
+            return stored;
+        });
     }
 
     public HotelRoom addRoom(HotelRoom room) {
-        return hotelRoomRepository.save(room);
+        HotelRoom saved = hotelRoomRepository.save(room);
+        eventPublisher.publishEvent(RoomSavedEvent.of(saved, true));
+        return saved;
+    }
+
+    public boolean existsById(Long id) {
+        return hotelRoomRepository.existsById(id);
     }
 
     public void deleteRoom(Long id) {
         hotelRoomRepository.deleteById(id);
+        eventPublisher.publishEvent(new RoomDeletedEvent(id));
     }
 
     public HotelRoom updateRoom(HotelRoom room) {
-        return hotelRoomRepository.save(room);
+        HotelRoom saved = hotelRoomRepository.save(room);
+        eventPublisher.publishEvent(RoomSavedEvent.of(saved, false));
+        return saved;
     }
 
+    @Transactional(readOnly = true)
     public List<HotelRoom> searchAvailableRooms(String category, Integer minPrice, Integer maxPrice,
                                                 LocalDate checkIn, LocalDate checkOut) {
-        List<HotelRoom> all = hotelRoomRepository.findAll();
-
-        return all.stream()
-                .filter(room -> category == null || room.getCategory().equalsIgnoreCase(category))
-                .filter(room -> minPrice == null || room.getPricePerNight() >= minPrice)
-                .filter(room -> maxPrice == null || room.getPricePerNight() <= maxPrice)
-                .filter(HotelRoom::isAvailable)
-                .filter(room -> {
-                    List<Reservation> reservations = reservationRepository.findByRoomId(room.getId());
-                    return reservations.stream().noneMatch(res ->
-                            !(res.getCheckOutDate().isBefore(checkIn) || res.getCheckInDate().isAfter(checkOut))
-                    );
-                })
+        Double min = minPrice != null ? minPrice.doubleValue() : null;
+        Double max = maxPrice != null ? maxPrice.doubleValue() : null;
+
+        // Without the index the database does the date overlap check in the same query
+        if (availabilityIndex == null || checkIn == null || checkOut == null) {
+            return hotelRoomRepository.searchAvailable(category, min, max, checkIn, checkOut);
+        }
+
+        return hotelRoomRepository.searchAvailable(category, min, max, null, null).stream()
+                .filter(room -> availabilityIndex.isAvailable(room.getId(), checkIn, checkOut))
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<HotelRoom> getAvailableRooms() {
         return hotelRoomRepository.findByAvailableTrue();
     }
 
+    @Transactional(readOnly = true)
     public List<HotelRoom> getRoomsByCategory(String category) {
         return hotelRoomRepository.findByCategoryIgnoreCase(category);
     }
+
+    @Transactional(readOnly = true)
+    public long countRooms() {
+        return hotelRoomRepository.count();
+    }
+
+    @Transactional(readOnly = true)
+    public long countAvailableRooms() {
+        return hotelRoomRepository.countByAvailableTrue();
+    }
+
+    // Reads stamped with the current catalog version: a read-write transaction never goes to the
+    // read replica, which may not have the writes that version already counts
+    public <T> T onPrimary(Supplier<T> read) {
+        return transactionTemplate.execute(status -> read.get());
+    }
 }
@@ -1,9 +1,10 @@
 package com.example.demo.service;
 
 
+import com.example.demo.entity.UserInfo;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoder;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -11,6 +12,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,6 +24,16 @@ public class JwtService {
 
     public static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_VERSION_CLAIM = "ver";
+
+    // Decoding the key and building the parser are done once, not per token
+    private final Key signKey = getSignKey();
+    private final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKey(signKey)
+            .build();
+
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -36,22 +48,19 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(SECRET)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    // Checks the signature and expiry in one parse; throws JwtException when the token is not valid
+    public Claims verify(String token) {
+        return extractAllClaims(token);
     }
 
-
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Claims extractAllClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
+
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = extractAllClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && claims.getExpiration().after(new Date()));
     }
 
 
@@ -60,13 +69,22 @@ public class JwtService {
         return createToken(claims,userName);
     }
 
+    // Carries id, roles and token version, so requests can be authenticated from the token alone
+    public String generateToken(UserInfo user){
+        Map<String,Object> claims=new HashMap<>();
+        claims.put(USER_ID_CLAIM, user.getId());
+        claims.put(ROLES_CLAIM, Arrays.stream(user.getRoles().split(",")).map(String::trim).toList());
+        claims.put(TOKEN_VERSION_CLAIM, user.getTokenVersion());
+        return createToken(claims,user.getName());
+    }
+
     private String createToken(Map<String, Object> claims, String userName) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(userName)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis()+1000*60*30))
-                .signWith(SignatureAlgorithm.HS256, getSignKey()).compact();
+                .signWith(signKey, SignatureAlgorithm.HS256).compact();
     }
 
     private Key getSignKey() {
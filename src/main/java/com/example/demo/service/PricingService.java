@@ -0,0 +1,82 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.dto.RoomOffer;
+import com.example.demo.dto.StayQuote;
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.NightlyRate;
+import com.example.demo.repository.NightlyRateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+// Nightly rates and stay prices. Prices are worked out in memory by the RateCalendar
+@Service
+public class PricingService {
+
+    @Autowired
+    private NightlyRateRepository nightlyRateRepository;
+
+    @Autowired
+    private RateCalendar rateCalendar;
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Transactional(readOnly = true)
+    public List<NightlyRate> getRates() {
+        return nightlyRateRepository.findAllByOrderByIdAsc();
+    }
+
+    public NightlyRate addRate(NightlyRate rate) {
+        NightlyRate saved = nightlyRateRepository.save(rate);
+        rateCalendar.rebuild();
+        dashboardStatsService.onRatesChanged();
+        return saved;
+    }
+
+    public boolean deleteRate(Long id) {
+        if (!nightlyRateRepository.existsById(id)) {
+            return false;
+        }
+        nightlyRateRepository.deleteById(id);
+        rateCalendar.rebuild();
+        dashboardStatsService.onRatesChanged();
+        return true;
+    }
+
+    // One quote per room and stay, rooms in the outer loop so each room is looked up once
+    public List<StayQuote> quote(QuoteRequest request) {
+        List<StayQuote> quotes = new ArrayList<>(request.combinations());
+        for (Long roomId : request.roomIds()) {
+            RateCalendar.RoomPricing pricing = roomId != null ? rateCalendar.forRoom(roomId) : null;
+            for (QuoteRequest.Stay stay : request.stays()) {
+                long total = pricing != null ? pricing.total(stay.checkIn(), stay.checkOut()) : RateCalendar.UNPRICED;
+                quotes.add(new StayQuote(roomId, stay.checkIn(), stay.checkOut(),
+                        Math.max(0, ChronoUnit.DAYS.between(stay.checkIn(), stay.checkOut())),
+                        total != RateCalendar.UNPRICED ? total : null));
+            }
+        }
+        return quotes;
+    }
+
+    // Search results with the price of the searched stay, when there is one
+    public List<RoomOffer> offers(List<HotelRoom> rooms, LocalDate checkIn, LocalDate checkOut) {
+        List<RoomOffer> offers = new ArrayList<>(rooms.size());
+        for (HotelRoom room : rooms) {
+            Long total = null;
+            if (checkIn != null && checkOut != null) {
+                long cents = rateCalendar.forRoom(room.getId(), room.getCategory(), room.getPricePerNight())
+                        .total(checkIn, checkOut);
+                total = cents != RateCalendar.UNPRICED ? cents : null;
+            }
+            offers.add(RoomOffer.of(room, total));
+        }
+        return offers;
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.RoomPrice;
+import com.example.demo.entity.NightlyRate;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.repository.NightlyRateRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Nightly prices of every room, in memory, so a stay is priced without a query.
+ *
+ * The {@link NightlyRate}s are compiled into plans: one per category that has rates, and one per
+ * room that has rates of its own (layered over its category's). A plan covers the days from the
+ * first to the last rated night and keeps two prefix sums over them, the cents of the rated
+ * nights and their number, so the total of any stay is two subtractions:
+ * base price x (nights - rated nights) + cents of the rated nights. Nights outside every rate
+ * cost the room's pricePerNight.
+ *
+ * Plans are rebuilt whenever a rate changes on this instance and every
+ * hotel.pricing.reload-interval (for rates changed elsewhere); room prices and categories follow
+ * the room events.
+ */
+@Component
+public class RateCalendar {
+
+    private static final Logger log = LoggerFactory.getLogger(RateCalendar.class);
+
+    // Total of a stay that cannot be priced: unknown room, or check-out before check-in
+    public static final long UNPRICED = -1;
+
+    @Autowired
+    private NightlyRateRepository nightlyRateRepository;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Caps the memory of a plan: 16 bytes per day, so ten years are about 58 KB
+    @Value("${hotel.pricing.max-days:3660}")
+    private int maxDays;
+
+    // Serializes loads and rebuilds, so an older read never replaces a newer one
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<Long, RoomPrice> rooms = new ConcurrentHashMap<>();
+
+    private volatile Plans plans = Plans.NONE;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${hotel.pricing.reload-interval:PT5M}", initialDelayString = "${hotel.pricing.reload-interval:PT5M}")
+    public void reload() {
+        lock.lock();
+        try {
+            // Like the availability index: read from the primary, right after a write as well
+            List<RoomPrice> prices = transactionTemplate.execute(status -> hotelRoomRepository.findAllPrices());
+            Set<Long> ids = new HashSet<>();
+            for (RoomPrice price : prices) {
+                rooms.put(price.id(), price);
+                ids.add(price.id());
+            }
+            rooms.keySet().retainAll(ids);
+            compile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // After a rate was added, changed or removed
+    public void rebuild() {
+        lock.lock();
+        try {
+            compile();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @EventListener
+    public void onRoomSaved(RoomSavedEvent event) {
+        RoomPrice before = rooms.put(event.roomId(), new RoomPrice(event.roomId(), event.category(), event.pricePerNight()));
+        // the room's own rates were layered over its old category's
+        if (before != null && !before.category().equalsIgnoreCase(event.category()) && plans.hasRoomPlan(event.roomId())) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onRoomDeleted(RoomDeletedEvent event) {
+        rooms.remove(event.roomId());
+        // its rates went with it (ON DELETE CASCADE)
+        if (plans.hasRoomPlan(event.roomId())) {
+            rebuild();
+        }
+    }
+
+    // Pricing of a room as this calendar last saw it, null for an unknown room
+    public RoomPricing forRoom(Long roomId) {
+        RoomPrice room = rooms.get(roomId);
+        return room != null ? forRoom(room.id(), room.category(), room.pricePerNight()) : null;
+    }
+
+    // Pricing of a room the caller has just read
+    public RoomPricing forRoom(long roomId, String category, double pricePerNight) {
+        Plans current = plans;
+        Plan plan = current.roomPlan(roomId);
+        if (plan == null && category != null) {
+            plan = current.byCategory.get(category);
+        }
+        return new RoomPricing(cents(pricePerNight), plan);
+    }
+
+    private void compile() {
+        List<NightlyRate> rates = transactionTemplate.execute(status -> nightlyRateRepository.findAllByOrderByIdAsc());
+        plans = Plans.compile(rates, rooms, maxDays);
+    }
+
+    private static long cents(double amount) {
+        return Math.round(amount * 100);
+    }
+
+    // Prices stays in one room. Creating it costs two lookups; every total after that is allocation-free
+    public record RoomPricing(long baseCents, Plan plan) {
+
+        public long total(LocalDate checkIn, LocalDate checkOut) {
+            return total(checkIn.toEpochDay(), checkOut.toEpochDay());
+        }
+
+        // Cents of the nights from checkInDay up to (not including) checkOutDay, both epoch days
+        public long total(long checkInDay, long checkOutDay) {
+            if (checkOutDay < checkInDay) {
+                return UNPRICED;
+            }
+            return plan == null ? baseCents * (checkOutDay - checkInDay) : plan.total(baseCents, checkInDay, checkOutDay);
+        }
+    }
+
+    public static final class Plan {
+
+        private final long firstDay;
+        // Index i covers the nights from firstDay up to (not including) firstDay + i
+        private final long[] ratedCents;
+        private final int[] ratedNights;
+
+        private Plan(long firstDay, long[] nightly) {
+            this.firstDay = firstDay;
+            ratedCents = new long[nightly.length + 1];
+            ratedNights = new int[nightly.length + 1];
+            for (int i = 0; i < nightly.length; i++) {
+                boolean rated = nightly[i] >= 0;
+                ratedCents[i + 1] = ratedCents[i] + (rated ? nightly[i] : 0);
+                ratedNights[i + 1] = ratedNights[i] + (rated ? 1 : 0);
+            }
+        }
+
+        long total(long baseCents, long checkInDay, long checkOutDay) {
+            int from = index(checkInDay);
+            int to = index(checkOutDay);
+            long rated = ratedNights[to] - ratedNights[from];
+            return baseCents * (checkOutDay - checkInDay - rated) + ratedCents[to] - ratedCents[from];
+        }
+
+        // Days before the plan map to 0, days after it to the end: nights out there are never rated
+        private int index(long day) {
+            return (int) Math.max(0, Math.min(day - firstDay, ratedNights.length - 1));
+        }
+    }
+
+    private record Plans(long[] roomIds, Plan[] roomPlans, Map<String, Plan> byCategory) {
+
+        static final Plans NONE = new Plans(new long[0], new Plan[0], new TreeMap<>(String.CASE_INSENSITIVE_ORDER));
+
+        static Plans compile(List<NightlyRate> rates, Map<Long, RoomPrice> rooms, int maxDays) {
+            if (rates.isEmpty()) {
+                return NONE;
+            }
+            long firstDay = Long.MAX_VALUE;
+            long lastDay = Long.MIN_VALUE;
+            Map<String, List<NightlyRate>> categoryRates = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Map<Long, List<NightlyRate>> roomRates = new TreeMap<>();
+            for (NightlyRate rate : rates) {
+                firstDay = Math.min(firstDay, rate.getFirstNight().toEpochDay());
+                lastDay = Math.max(lastDay, rate.getLastNight().toEpochDay());
+                if (rate.getRoomId() != null) {
+                    roomRates.computeIfAbsent(rate.getRoomId(), id -> new ArrayList<>()).add(rate);
+                } else if (rate.getCategory() != null) {
+                    categoryRates.computeIfAbsent(rate.getCategory(), category -> new ArrayList<>()).add(rate);
+                }
+            }
+            int days = (int) Math.min(lastDay - firstDay + 1, maxDays);
+            if (days < lastDay - firstDay + 1) {
+                log.warn("Rates span {} to {}; nights after {} are priced at the room price (hotel.pricing.max-days={})",
+                        LocalDate.ofEpochDay(firstDay), LocalDate.ofEpochDay(lastDay),
+                        LocalDate.ofEpochDay(firstDay + days - 1), maxDays);
+            }
+
+            Map<String, long[]> categoryNightly = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            Map<String, Plan> byCategory = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (Map.Entry<String, List<NightlyRate>> entry : categoryRates.entrySet()) {
+                long[] nightly = unrated(days);
+                apply(entry.getValue(), nightly, firstDay);
+                categoryNightly.put(entry.getKey(), nightly);
+                byCategory.put(entry.getKey(), new Plan(firstDay, nightly));
+            }
+
+            long[] roomIds = new long[roomRates.size()];
+            Plan[] roomPlans = new Plan[roomRates.size()];
+            int i = 0;
+            for (Map.Entry<Long, List<NightlyRate>> entry : roomRates.entrySet()) {
+                RoomPrice room = rooms.get(entry.getKey());
+                long[] underlying = room != null ? categoryNightly.get(room.category()) : null;
+                long[] nightly = underlying != null ? underlying.clone() : unrated(days);
+                apply(entry.getValue(), nightly, firstDay);
+                roomIds[i] = entry.getKey();
+                roomPlans[i++] = new Plan(firstDay, nightly);
+            }
+            return new Plans(roomIds, roomPlans, byCategory);
+        }
+
+        Plan roomPlan(long roomId) {
+            int i = Arrays.binarySearch(roomIds, roomId);
+            return i >= 0 ? roomPlans[i] : null;
+        }
+
+        boolean hasRoomPlan(long roomId) {
+            return Arrays.binarySearch(roomIds, roomId) >= 0;
+        }
+
+        private static long[] unrated(int days) {
+            long[] nightly = new long[days];
+            Arrays.fill(nightly, -1);
+            return nightly;
+        }
+
+        // In id order, so a newer rate overwrites the nights it shares with an older one
+        private static void apply(List<NightlyRate> rates, long[] nightly, long firstDay) {
+            for (NightlyRate rate : rates) {
+                long from = Math.max(rate.getFirstNight().toEpochDay(), firstDay);
+                long to = Math.min(rate.getLastNight().toEpochDay(), firstDay + nightly.length - 1);
+                for (long day = from; day <= to; day++) {
+                    if (rate.appliesOn(LocalDate.ofEpochDay(day).getDayOfWeek())) {
+                        nightly[(int) (day - firstDay)] = rate.getPriceCents();
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ReservationChangedEvent;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Users who changed something in the last hotel.datasource.read-your-writes-window. Their reads
+ * go to the primary database rather than the replica, so a guest who just booked sees the
+ * booking in their list even while the replica is still catching up. Everybody else keeps
+ * reading from the replica.
+ *
+ * The window opens on the after-commit room and reservation events, which are published on the
+ * thread (and so with the security context) of the request that made the change.
+ */
+@Component
+public class ReadYourWritesWindow {
+
+    @Value("${hotel.datasource.read-your-writes-window:5s}")
+    private Duration window;
+
+    private Cache<String, Boolean> recentWriters;
+
+    @PostConstruct
+    void init() {
+        recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    // true when the user of the current request wrote within the window
+    public boolean isOpen() {
+        String user = currentUser();
+        return user != null && recentWriters.getIfPresent(user) != null;
+    }
+
+    @EventListener
+    public void onRoomSaved(RoomSavedEvent event) {
+        open();
+    }
+
+    @EventListener
+    public void onRoomDeleted(RoomDeletedEvent event) {
+        open();
+    }
+
+    @EventListener
+    public void onReservationChanged(ReservationChangedEvent event) {
+        open();
+    }
+
+    private void open() {
+        String user = currentUser();
+        if (user != null) {
+            recentWriters.put(user, Boolean.TRUE);
+        }
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated() ? authentication.getName() : null;
+    }
+}
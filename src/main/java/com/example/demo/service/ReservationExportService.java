@@ -0,0 +1,120 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ReservationExportRow;
+import com.example.demo.entity.Reservation;
+import com.example.demo.repository.ReservationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the whole reservation history to an output stream, one row at a time. Rows are read
+ * through a JDBC cursor in a read-only transaction and each reservation is detached once it has
+ * been written, so memory use stays flat however many rows there are.
+ */
+@Service
+public class ReservationExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    static final String CSV_HEADER = "id,customerName,roomId,roomNumber,checkInDate,checkOutDate,paymentStatus";
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void initTransaction() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public void export(Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // one line per reservation; the generator must not close the response stream under us
+        ObjectWriter json = objectMapper.writerFor(ReservationExportRow.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Reservation> rows = reservationRepository.streamAllWithRoom()) {
+                    Iterator<Reservation> it = rows.iterator();
+                    while (it.hasNext()) {
+                        Reservation reservation = it.next();
+                        if (format == Format.CSV) {
+                            writeCsv(reservation, writer);
+                        } else {
+                            json.writeValue(writer, ReservationExportRow.of(reservation));
+                            writer.write('\n');
+                        }
+                        entityManager.detach(reservation);
+                    }
+                } catch (IOException e) {
+                    // the client went away: stop reading rows
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(Reservation reservation, Writer writer) throws IOException {
+        writer.write(String.valueOf(reservation.getId()));
+        writer.write(',');
+        writer.write(csv(reservation.getCustomerName()));
+        writer.write(',');
+        writer.write(reservation.getRoom() != null ? String.valueOf(reservation.getRoom().getId()) : "");
+        writer.write(',');
+        writer.write(reservation.getRoom() != null ? csv(reservation.getRoom().getRoomNumber()) : "");
+        writer.write(',');
+        writer.write(reservation.getCheckInDate() != null ? reservation.getCheckInDate().toString() : "");
+        writer.write(',');
+        writer.write(reservation.getCheckOutDate() != null ? reservation.getCheckOutDate().toString() : "");
+        writer.write(',');
+        writer.write(String.valueOf(reservation.isPaymentStatus()));
+        writer.write('\n');
+    }
+
+    // RFC 4180 quoting, only when the value needs it
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,72 +1,361 @@
 package com.example.demo.service;
 
+import com.example.demo.dto.ReservationDTO;
 import com.example.demo.entity.HotelRoom;
 import com.example.demo.entity.Reservation;
+import com.example.demo.entity.RoomNight;
+import com.example.demo.event.ReservationChangedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import com.example.demo.exception.ReservationConflictException;
 import com.example.demo.repository.HotelRoomRepository;
 import com.example.demo.repository.ReservationRepository;
+import com.example.demo.repository.RoomNightRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
 
 @Service
 public class ReservationService {
 
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    // Deadlocks and lock timeouts are worth another try, a taken night is not
+    private static final int MAX_WRITE_ATTEMPTS = 3;
+
+    public static final String DATE_CONFLICT_TIMER = "hotel.booking.date-conflict";
+
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @Autowired
     private HotelRoomRepository hotelRoomRepository;
 
-    public List<Reservation> getAllReservations() {
-        return reservationRepository.findAllWithRoom();  // ✅ Use the JOIN FETCH version
+    @Autowired(required = false)
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hotel.booking.lock-stripes:256}")
+    private int lockStripes;
+
+    private RoomLockStripes roomLocks;
+
+    @PostConstruct
+    void initRoomLocks() {
+        roomLocks = new RoomLockStripes(lockStripes);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getAllReservations() {
+        return reservationRepository.findAllDtos();
     }
 
+    // Up to limit reservations with an id above after, in id order
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsAfter(long after, int limit) {
+        return reservationRepository.findDtoPageAfter(after, Limit.of(limit));
+    }
+
+    // The entity, for changing it, so read on the primary; the room is loaded on first access
+    @Transactional
     public Optional<Reservation> getReservationById(Long id) {
         return reservationRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<ReservationDTO> getReservationDtoById(Long id) {
+        return reservationRepository.findDtoById(id);
+    }
+
+    // Inserts the reservation together with its room nights. Throws ReservationConflictException
+    // when the database already holds one of those nights for the room.
     public Reservation addReservation(Reservation reservation) {
-        return reservationRepository.save(reservation);
+        Reservation saved = writeNights(reservation, () -> inTransaction(List.of(reservation), status -> {
+            Reservation persisted = reservationRepository.save(reservation);
+            roomNightRepository.saveAllAndFlush(RoomNight.coveringStay(persisted));
+            return persisted;
+        }));
+        if (availabilityIndex != null) {
+            availabilityIndex.put(saved);
+        }
+        eventPublisher.publishEvent(new ReservationChangedEvent(null, new ReservationDTO(saved)));
+        return saved;
+    }
+
+    // Checks for overlapping stays and saves under the room's lock, so two bookings of the same
+    // room can never both pass the check. Returns empty when the dates are already taken.
+    public Optional<Reservation> reserveIfAvailable(Reservation reservation) {
+        Long roomId = reservation.getRoom().getId();
+        Lock lock = roomLocks.forRoom(roomId);
+        lock.lock();
+        try {
+            if (hasDateConflict(roomId, reservation.getCheckInDate(), reservation.getCheckOutDate())) {
+                return Optional.empty();
+            }
+            return tryAdd(reservation);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Books a whole group in one pass: every room involved is locked (in stripe order), each
+     * stay is checked against existing bookings and against the stays accepted before it in the
+     * same batch, and all accepted stays are written in a single transaction of batched inserts.
+     * The result is aligned with the input; an empty entry means the dates were taken.
+     */
+    public List<Optional<Reservation>> reserveAllIfAvailable(List<Reservation> reservations) {
+        List<Lock> locks = roomLocks.forRooms(reservations.stream().map(res -> res.getRoom().getId()).toList());
+        locks.forEach(Lock::lock);
+        try {
+            List<Optional<Reservation>> results = new ArrayList<>();
+            List<Reservation> accepted = new ArrayList<>();
+            Map<Long, List<Reservation>> acceptedByRoom = new HashMap<>();
+            for (Reservation reservation : reservations) {
+                Long roomId = reservation.getRoom().getId();
+                List<Reservation> sameRoom = acceptedByRoom.computeIfAbsent(roomId, id -> new ArrayList<>());
+                boolean conflict = sameRoom.stream().anyMatch(other -> overlaps(other, reservation))
+                        || hasDateConflict(roomId, reservation.getCheckInDate(), reservation.getCheckOutDate());
+                if (conflict) {
+                    results.add(Optional.empty());
+                } else {
+                    sameRoom.add(reservation);
+                    accepted.add(reservation);
+                    results.add(Optional.of(reservation));
+                }
+            }
+
+            try {
+                inTransaction(accepted, status -> {
+                    reservationRepository.saveAll(accepted);
+                    List<RoomNight> nights = new ArrayList<>();
+                    accepted.forEach(res -> nights.addAll(RoomNight.coveringStay(res)));
+                    roomNightRepository.saveAllAndFlush(nights);
+                    return null;
+                });
+            } catch (DataIntegrityViolationException e) {
+                // Another instance took some of the nights meanwhile: sort it out stay by stay
+                accepted.forEach(res -> res.setId(null));
+                for (int i = 0; i < results.size(); i++) {
+                    if (results.get(i).isPresent()) {
+                        results.set(i, tryAdd(results.get(i).get()));
+                    }
+                }
+                return results;
+            }
+
+            if (availabilityIndex != null) {
+                accepted.forEach(availabilityIndex::put);
+            }
+            accepted.forEach(res -> eventPublisher.publishEvent(new ReservationChangedEvent(null, new ReservationDTO(res))));
+            return results;
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    // A conflict here means another instance booked the nights since our index/read saw them
+    private Optional<Reservation> tryAdd(Reservation reservation) {
+        try {
+            return Optional.of(addReservation(reservation));
+        } catch (ReservationConflictException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static boolean overlaps(Reservation a, Reservation b) {
+        return !(a.getCheckOutDate().isBefore(b.getCheckInDate()) || a.getCheckInDate().isAfter(b.getCheckOutDate()));
     }
 
     public void deleteReservation(long id) {
-        Optional<Reservation> reservationOpt = reservationRepository.findById(id);
+        Optional<Reservation> reservationOpt = onPrimary(() -> reservationRepository.findWithRoomById(id));
         if (reservationOpt.isPresent()) {
             Reservation reservation = reservationOpt.get();
-            HotelRoom room = reservation.getRoom();
-            if (room != null) {
-                room.setAvailable(true);
-                hotelRoomRepository.save(room);
+            inTransaction(status -> {
+                HotelRoom room = reservation.getRoom();
+                if (room != null) {
+                    room.setAvailable(true);
+                    hotelRoomRepository.save(room);
+                }
+                roomNightRepository.deleteByReservationId(id);
+                reservationRepository.deleteById(id);
+                return null;
+            });
+            if (availabilityIndex != null) {
+                availabilityIndex.remove(id);
             }
-            reservationRepository.deleteById(id);
+            if (reservation.getRoom() != null) {
+                eventPublisher.publishEvent(RoomSavedEvent.of(reservation.getRoom(), false));
+            }
+            eventPublisher.publishEvent(new ReservationChangedEvent(new ReservationDTO(reservation), null));
         } else {
             throw new RuntimeException("Reservation not found");
         }
     }
 
+    // Saves the changes and moves the reservation onto the nights of its (possibly new) room and
+    // dates. Like a new booking it is checked under the room's lock (the old room's too, when it
+    // moves); throws ReservationConflictException when another stay already holds the new dates.
     public Reservation updateReservation(Reservation reservation) {
-        return reservationRepository.save(reservation);
+        ReservationDTO before = onPrimary(() -> reservationRepository.findDtoById(reservation.getId())).orElse(null);
+        Long roomId = reservation.getRoom().getId();
+        List<Long> roomIds = before == null || before.getRoomId() == null
+                ? List.of(roomId) : List.of(roomId, before.getRoomId());
+        List<Lock> locks = roomLocks.forRooms(roomIds);
+        locks.forEach(Lock::lock);
+        try {
+            if (hasDateConflict(roomId, reservation.getCheckInDate(), reservation.getCheckOutDate(), reservation.getId())) {
+                throw new ReservationConflictException("Room is already booked for the selected dates.");
+            }
+            Reservation updated = writeNights(reservation, () -> inTransaction(status -> {
+                roomNightRepository.deleteByReservationId(reservation.getId());
+                Reservation merged = reservationRepository.save(reservation);
+                roomNightRepository.saveAllAndFlush(RoomNight.coveringStay(merged));
+                return merged;
+            }));
+            if (availabilityIndex != null) {
+                availabilityIndex.put(updated);
+            }
+            eventPublisher.publishEvent(new ReservationChangedEvent(before, new ReservationDTO(updated)));
+            return updated;
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
     }
 
-    public List<Reservation> getReservationsByCustomerName(String name) {
-        return reservationRepository.findByCustomerNameIgnoreCase(name);
+    // Reservations written before room_night existed have no nights yet: claim them once at startup
+    @EventListener(ApplicationReadyEvent.class)
+    public void claimMissingNights() {
+        for (Reservation reservation : reservationRepository.findWithoutNights()) {
+            try {
+                inTransaction(status -> roomNightRepository.saveAllAndFlush(RoomNight.coveringStay(reservation)));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("Reservation {} overlaps another stay of room {}; its nights were not claimed",
+                        reservation.getId(), reservation.getRoom().getId());
+            }
+        }
+    }
+
+    private Reservation writeNights(Reservation reservation, Supplier<Reservation> write) {
+        boolean isNew = reservation.getId() == null;
+        try {
+            return write.get();
+        } catch (DataIntegrityViolationException e) {
+            if (isNew) {
+                // the identity assigned by the rolled back insert is not valid any more
+                reservation.setId(null);
+            }
+            // The index had those nights free: another instance booked them since it last loaded
+            if (availabilityIndex != null && reservation.getRoom() != null) {
+                availabilityIndex.reloadRoom(reservation.getRoom().getId());
+            }
+            throw new ReservationConflictException("Room is already booked for the selected dates.", e);
+        }
     }
 
-    public List<Reservation> getReservationsByRoomId(Long roomId) {
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        return inTransaction(List.of(), action);
+    }
+
+    // New reservations among inserted get their id back to null after a failed attempt: the id the
+    // rolled back insert assigned was never stored, and saving it again would merge, not insert
+    private <T> T inTransaction(List<Reservation> inserted, TransactionCallback<T> action) {
+        List<Reservation> fresh = inserted.stream().filter(res -> res.getId() == null).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(action);
+            } catch (TransientDataAccessException e) {
+                fresh.forEach(res -> res.setId(null));
+                if (attempt >= MAX_WRITE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Retrying reservation write after {}", e.getMessage());
+            }
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsByCustomerName(String name) {
+        return reservationRepository.findByCustomerNameNormalized(Reservation.normalizeName(name));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsByRoomId(Long roomId) {
         return reservationRepository.findByRoomId(roomId);
     }
 
-    public List<Reservation> getReservationsByDateRange(LocalDate start, LocalDate end) {
+    @Transactional(readOnly = true)
+    public List<ReservationDTO> getReservationsByDateRange(LocalDate start, LocalDate end) {
         return reservationRepository.findByCheckInDateBetween(start, end);
     }
 
+    @Transactional(readOnly = true)
+    public long countReservations() {
+        return reservationRepository.count();
+    }
+
+    // Reservations not checked out yet: today's departures count as active
+    @Transactional(readOnly = true)
+    public long countActiveReservations() {
+        return reservationRepository.countByCheckOutDateGreaterThanEqual(LocalDate.now());
+    }
+
+    // Timed per source: the in-memory index, or the overlap query when the index is off
     public boolean hasDateConflict(Long roomId, LocalDate checkIn, LocalDate checkOut) {
-        List<Reservation> reservations = reservationRepository.findByRoomId(roomId);
-        return reservations.stream().anyMatch(res ->
-                !(res.getCheckOutDate().isBefore(checkIn) || res.getCheckInDate().isAfter(checkOut))
-        );
+        return hasDateConflict(roomId, checkIn, checkOut, null);
+    }
+
+    // Same, leaving out the stay of the given reservation (the one being moved), when not null
+    public boolean hasDateConflict(Long roomId, LocalDate checkIn, LocalDate checkOut, Long ignoredReservationId) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (availabilityIndex != null) {
+            boolean conflict = !availabilityIndex.isAvailable(roomId, checkIn, checkOut, ignoredReservationId);
+            sample.stop(meterRegistry.timer(DATE_CONFLICT_TIMER, "source", "index"));
+            return conflict;
+        }
+        boolean conflict = onPrimary(() -> ignoredReservationId == null
+                ? reservationRepository.existsOverlapping(roomId, checkIn, checkOut)
+                : reservationRepository.existsOverlappingOther(roomId, checkIn, checkOut, ignoredReservationId));
+        sample.stop(meterRegistry.timer(DATE_CONFLICT_TIMER, "source", "database"));
+        return conflict;
+    }
+
+    // Reads a write depends on, and reads stamped with the current reservations version: a
+    // read-write transaction never goes to the read replica, which may lag
+    public <T> T onPrimary(Supplier<T> read) {
+        return transactionTemplate.execute(status -> read.get());
     }
 }
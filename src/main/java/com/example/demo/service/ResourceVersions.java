@@ -0,0 +1,60 @@
+package com.example.demo.service;
+
+import com.example.demo.event.ReservationChangedEvent;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory version stamps of the room catalog and of the reservations, bumped after every
+ * committed write. The list endpoints use them as ETags, so a client sending the current one
+ * in If-None-Match gets 304 Not Modified before any query runs or any JSON is written.
+ *
+ * Read the tag before loading the data: a write committing in between then leaves the response
+ * with an older tag than its content, which only costs the client one extra download.
+ * Like the availability index, versions only see writes made through this instance.
+ */
+@Component
+public class ResourceVersions {
+
+    // Keeps this run's tags apart from an earlier run's, whose counters started from the same values
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private final AtomicLong rooms = new AtomicLong();
+    private final AtomicLong reservations = new AtomicLong();
+
+    // Cancelling a reservation frees its room, which arrives here as a RoomSavedEvent too.
+    // Runs before other listeners, so whatever reacts to a change already sees the new version
+    @EventListener({RoomSavedEvent.class, RoomDeletedEvent.class})
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void roomsChanged() {
+        rooms.incrementAndGet();
+    }
+
+    @EventListener(ReservationChangedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void reservationsChanged() {
+        reservations.incrementAndGet();
+    }
+
+    public long roomsVersion() {
+        return rooms.get();
+    }
+
+    public String roomsTag() {
+        return roomsTag(rooms.get());
+    }
+
+    public String roomsTag(long version) {
+        return "\"rooms-" + epoch + "-" + version + "\"";
+    }
+
+    public String reservationsTag() {
+        return "\"reservations-" + epoch + "-" + reservations.get() + "\"";
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ReservationStay;
+import com.example.demo.entity.Reservation;
+import com.example.demo.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory view of which nights every room is booked, so availability checks
+ * never have to read the reservation table.
+ *
+ * The index is loaded at startup and then kept up to date by {@link ReservationService}
+ * on every insert, update and delete. Bookings made by other instances only show up when it
+ * reloads, every hotel.availability-index.reload-interval: until then a date search here can
+ * list such a room as free (the booking itself is still refused by the room_night key).
+ * A stay blocks a date range when the two overlap, both ends included (same rule as
+ * {@link ReservationService#hasDateConflict}).
+ */
+@Component
+@ConditionalOnProperty(name = "hotel.availability-index.enabled", havingValue = "true", matchIfMissing = true)
+public class RoomAvailabilityIndex {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private volatile Bookings bookings = new Bookings();
+
+    // Changes made while a rebuild reads are replayed onto what it read; the write lock is only
+    // held to start that log and to swap the rebuilt index in
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Lock rebuildLock = new ReentrantLock();
+    private Queue<Consumer<Bookings>> pending;
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${hotel.availability-index.reload-interval:PT1M}",
+            initialDelayString = "${hotel.availability-index.reload-interval:PT1M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            swapLock.writeLock().lock();
+            try {
+                pending = new ConcurrentLinkedQueue<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            Bookings rebuilt = null;
+            try {
+                // Bookings are admitted against this index: load it from the primary, never from a lagging replica
+                List<ReservationStay> allStays = transactionTemplate.execute(status -> reservationRepository.findAllStays());
+                rebuilt = Bookings.of(allStays);
+            } finally {
+                swapLock.writeLock().lock();
+                try {
+                    if (rebuilt != null) {
+                        for (Consumer<Bookings> change : pending) {
+                            change.accept(rebuilt);
+                        }
+                        bookings = rebuilt;
+                    }
+                    pending = null;
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Replaces one room's stays with what the database holds, after a write found a night taken
+    // that the index showed as free
+    public void reloadRoom(Long roomId) {
+        List<ReservationStay> stays = transactionTemplate.execute(status -> reservationRepository.findStaysByRoomId(roomId));
+        apply(current -> current.replaceRoom(roomId, stays));
+    }
+
+    // true when no indexed stay of the room overlaps [checkIn, checkOut]
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut) {
+        return isAvailable(roomId, checkIn, checkOut, null);
+    }
+
+    // Same, as if the given reservation (when not null) were not booked
+    public boolean isAvailable(Long roomId, LocalDate checkIn, LocalDate checkOut, Long ignoredReservationId) {
+        RoomStays stays = bookings.staysByRoom.get(roomId);
+        if (stays != null && ignoredReservationId != null) {
+            stays = stays.without(ignoredReservationId);
+        }
+        return stays == null || !stays.overlaps(checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    // Adds a newly saved reservation or moves an updated one to its new room/dates. The new stay
+    // goes in before the old one comes out (in the same step when the room is unchanged), so a
+    // concurrent check never sees the reservation's nights as free while it moves
+    public void put(Reservation reservation) {
+        Long id = reservation.getId();
+        if (id == null) {
+            return;
+        }
+        if (reservation.getRoom() == null || reservation.getCheckInDate() == null || reservation.getCheckOutDate() == null) {
+            remove(id);
+            return;
+        }
+
+        Long roomId = reservation.getRoom().getId();
+        long checkIn = reservation.getCheckInDate().toEpochDay();
+        long checkOut = reservation.getCheckOutDate().toEpochDay();
+        apply(current -> current.put(id, roomId, checkIn, checkOut));
+    }
+
+    public void remove(Long reservationId) {
+        apply(current -> current.remove(reservationId));
+    }
+
+    private void apply(Consumer<Bookings> change) {
+        swapLock.readLock().lock();
+        try {
+            change.accept(bookings);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // The stays of every room, and which room each reservation is in
+    private static final class Bookings {
+
+        private final Map<Long, RoomStays> staysByRoom = new ConcurrentHashMap<>();
+        private final Map<Long, Long> roomByReservation = new ConcurrentHashMap<>();
+
+        static Bookings of(List<ReservationStay> allStays) {
+            Map<Long, List<ReservationStay>> grouped = new HashMap<>();
+            for (ReservationStay stay : allStays) {
+                if (stay.roomId() == null || stay.checkInDate() == null || stay.checkOutDate() == null) {
+                    continue;
+                }
+                grouped.computeIfAbsent(stay.roomId(), id -> new ArrayList<>()).add(stay);
+            }
+
+            Bookings bookings = new Bookings();
+            grouped.forEach((roomId, stays) -> {
+                bookings.staysByRoom.put(roomId, RoomStays.of(stays));
+                stays.forEach(stay -> bookings.roomByReservation.put(stay.id(), roomId));
+            });
+            return bookings;
+        }
+
+        void put(Long id, Long roomId, long checkIn, long checkOut) {
+            staysByRoom.compute(roomId, (key, stays) -> {
+                RoomStays others = stays == null ? null : stays.without(id);
+                return (others == null ? RoomStays.EMPTY : others).with(id, checkIn, checkOut);
+            });
+            Long previousRoomId = roomByReservation.put(id, roomId);
+            if (previousRoomId != null && !previousRoomId.equals(roomId)) {
+                staysByRoom.computeIfPresent(previousRoomId, (key, stays) -> stays.without(id));
+            }
+        }
+
+        void remove(Long reservationId) {
+            Long roomId = roomByReservation.remove(reservationId);
+            if (roomId != null) {
+                staysByRoom.computeIfPresent(roomId, (id, stays) -> stays.without(reservationId));
+            }
+        }
+
+        void replaceRoom(Long roomId, List<ReservationStay> stays) {
+            List<ReservationStay> dated = stays.stream()
+                    .filter(stay -> stay.checkInDate() != null && stay.checkOutDate() != null)
+                    .toList();
+            RoomStays previous = staysByRoom.get(roomId);
+            if (previous != null) {
+                for (long id : previous.ids) {
+                    roomByReservation.remove(id, roomId);
+                }
+            }
+            for (ReservationStay stay : dated) {
+                Long previousRoomId = roomByReservation.put(stay.id(), roomId);
+                if (previousRoomId != null && !previousRoomId.equals(roomId)) {
+                    staysByRoom.computeIfPresent(previousRoomId, (key, other) -> other.without(stay.id()));
+                }
+            }
+            if (dated.isEmpty()) {
+                staysByRoom.remove(roomId);
+            } else {
+                staysByRoom.put(roomId, RoomStays.of(dated));
+            }
+        }
+    }
+
+    /**
+     * Immutable, check-in ordered stays of a single room. {@code maxCheckOut[i]} is the latest
+     * check-out among stays {@code 0..i}, which turns the overlap test into one binary search.
+     * Updates copy the (small) arrays, so readers never need a lock.
+     */
+    static final class RoomStays {
+
+        static final RoomStays EMPTY = new RoomStays(new long[0], new long[0], new long[0]);
+
+        private final long[] ids;
+        private final long[] checkIns;
+        private final long[] checkOuts;
+        private final long[] maxCheckOut;
+
+        private RoomStays(long[] ids, long[] checkIns, long[] checkOuts) {
+            this.ids = ids;
+            this.checkIns = checkIns;
+            this.checkOuts = checkOuts;
+            this.maxCheckOut = new long[ids.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ids.length; i++) {
+                max = Math.max(max, checkOuts[i]);
+                maxCheckOut[i] = max;
+            }
+        }
+
+        static RoomStays of(List<ReservationStay> stays) {
+            List<ReservationStay> sorted = new ArrayList<>(stays);
+            sorted.sort((a, b) -> a.checkInDate().compareTo(b.checkInDate()));
+            long[] ids = new long[sorted.size()];
+            long[] checkIns = new long[sorted.size()];
+            long[] checkOuts = new long[sorted.size()];
+            for (int i = 0; i < sorted.size(); i++) {
+                ReservationStay stay = sorted.get(i);
+                ids[i] = stay.id();
+                checkIns[i] = stay.checkInDate().toEpochDay();
+                checkOuts[i] = stay.checkOutDate().toEpochDay();
+            }
+            return new RoomStays(ids, checkIns, checkOuts);
+        }
+
+        boolean overlaps(long from, long to) {
+            int last = firstCheckInAfter(to) - 1;
+            return last >= 0 && maxCheckOut[last] >= from;
+        }
+
+        RoomStays with(long id, long checkIn, long checkOut) {
+            int at = firstCheckInAfter(checkIn);
+            return new RoomStays(
+                    insert(ids, at, id),
+                    insert(checkIns, at, checkIn),
+                    insert(checkOuts, at, checkOut));
+        }
+
+        RoomStays without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return ids.length == 1 ? null
+                            : new RoomStays(delete(ids, i), delete(checkIns, i), delete(checkOuts, i));
+                }
+            }
+            return this;
+        }
+
+        private int firstCheckInAfter(long day) {
+            int low = 0;
+            int high = checkIns.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (checkIns[mid] <= day) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private static long[] insert(long[] values, int at, long value) {
+            long[] copy = Arrays.copyOf(values, values.length + 1);
+            System.arraycopy(values, at, copy, at + 1, values.length - at);
+            copy[at] = value;
+            return copy;
+        }
+
+        private static long[] delete(long[] values, int at) {
+            long[] copy = new long[values.length - 1];
+            System.arraycopy(values, 0, copy, 0, at);
+            System.arraycopy(values, at + 1, copy, at, values.length - at - 1);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.HotelRoomDTO;
+import com.example.demo.dto.RoomImportResult;
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.event.RoomSavedEvent;
+import com.example.demo.repository.HotelRoomRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates or updates rooms by room number from a JSON array or NDJSON stream. Rows are read
+ * one at a time and written in chunks, so memory use does not depend on the size of the upload.
+ */
+@Service
+public class RoomBulkImportService {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public RoomImportResult importRooms(InputStream body) throws IOException {
+        RoomImportResult result = new RoomImportResult();
+        // readValues accepts both a root array and a whitespace separated sequence of objects
+        MappingIterator<HotelRoomDTO> rows = objectMapper.readerFor(HotelRoomDTO.class).readValues(body);
+
+        Map<String, Row> chunk = new LinkedHashMap<>();
+        int rowNumber = 0;
+        try (rows) {
+            while (true) {
+                HotelRoomDTO dto;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    dto = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    result.addError(rowNumber, null, "Unreadable row: " + e.getOriginalMessage());
+                    if (!isRecoverable(e)) {
+                        break;
+                    }
+                    continue;
+                }
+
+                String problem = validate(dto);
+                if (problem != null) {
+                    result.addError(rowNumber, dto.getRoomNumber(), problem);
+                    continue;
+                }
+                // a room repeated within the chunk: the later row wins
+                chunk.put(dto.getRoomNumber(), new Row(rowNumber, dto));
+                if (chunk.size() >= CHUNK_SIZE) {
+                    writeChunk(chunk.values(), result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk.values(), result);
+        }
+        return result;
+    }
+
+    private void writeChunk(Iterable<Row> rows, RoomImportResult result) {
+        List<Row> chunk = new ArrayList<>();
+        rows.forEach(chunk::add);
+        try {
+            int[] counts = upsert(chunk);
+            result.addCreated(counts[0]);
+            result.addUpdated(counts[1]);
+        } catch (DataIntegrityViolationException e) {
+            // a room number was created concurrently: retry row by row to isolate the failures
+            for (Row row : chunk) {
+                try {
+                    int[] counts = upsert(List.of(row));
+                    result.addCreated(counts[0]);
+                    result.addUpdated(counts[1]);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    result.addError(row.number(), row.dto().getRoomNumber(), "Could not be saved: " + rowFailure.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    // returns {created, updated}
+    private int[] upsert(List<Row> chunk) {
+        // read on the primary: a lagging replica would send existing rooms down the insert path
+        Map<String, Long> existingIds = transactionTemplate.execute(status -> hotelRoomRepository.findByRoomNumberIn(
+                        chunk.stream().map(row -> row.dto().getRoomNumber()).toList())
+                .stream()
+                .collect(Collectors.toMap(HotelRoom::getRoomNumber, HotelRoom::getId)));
+
+        List<RoomSavedEvent> events = new ArrayList<>();
+        int[] counts = transactionTemplate.execute(status -> {
+            // new rooms first: their ids are allocated before this transaction takes a connection
+            List<HotelRoom> created = new ArrayList<>();
+            Map<Long, HotelRoomDTO> changes = new LinkedHashMap<>();
+            for (Row row : chunk) {
+                HotelRoomDTO dto = row.dto();
+                Long id = existingIds.get(dto.getRoomNumber());
+                if (id == null) {
+                    created.add(newRoom(dto));
+                } else {
+                    changes.put(id, dto);
+                }
+            }
+            hotelRoomRepository.saveAll(created);
+
+            Map<Long, HotelRoom> managed = hotelRoomRepository.findAllById(changes.keySet()).stream()
+                    .collect(Collectors.toMap(HotelRoom::getId, Function.identity()));
+            // rooms deleted since the lookup above are created again
+            List<HotelRoom> recreated = new ArrayList<>();
+            changes.forEach((id, dto) -> {
+                HotelRoom room = managed.get(id);
+                if (room == null) {
+                    recreated.add(newRoom(dto));
+                    return;
+                }
+                room.setCategory(dto.getCategory());
+                room.setAvailable(dto.isAvailable());
+                room.setPricePerNight(dto.getPricePerNight());
+            });
+            hotelRoomRepository.saveAll(recreated);
+            created.addAll(recreated);
+            hotelRoomRepository.flush();
+            created.forEach(room -> events.add(RoomSavedEvent.of(room, true)));
+            managed.values().forEach(room -> events.add(RoomSavedEvent.of(room, false)));
+            return new int[]{created.size(), managed.size()};
+        });
+        events.forEach(eventPublisher::publishEvent);
+        return counts;
+    }
+
+    private static HotelRoom newRoom(HotelRoomDTO dto) {
+        return new HotelRoom(dto.getRoomNumber(), dto.getCategory(), dto.isAvailable(), dto.getPricePerNight());
+    }
+
+    private static String validate(HotelRoomDTO dto) {
+        if (dto == null) {
+            return "Empty row.";
+        }
+        if (dto.getRoomNumber() == null || dto.getRoomNumber().isBlank()) {
+            return "Room number is required.";
+        }
+        if (dto.getCategory() == null || dto.getCategory().isBlank()) {
+            return "Category is required.";
+        }
+        if (dto.getPricePerNight() <= 0) {
+            return "Price per night must be positive.";
+        }
+        return null;
+    }
+
+    // Mapping errors (wrong field type...) only spoil their own row; broken JSON ends the stream
+    private static boolean isRecoverable(JsonProcessingException e) {
+        return e instanceof JsonMappingException;
+    }
+
+    private record Row(int number, HotelRoomDTO dto) {}
+}
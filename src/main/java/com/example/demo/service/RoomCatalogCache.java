@@ -0,0 +1,166 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.event.RoomDeletedEvent;
+import com.example.demo.event.RoomSavedEvent;
+import com.example.demo.repository.HotelRoomRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The room catalog views (all rooms, available rooms, rooms of each category) kept as
+ * ready-made JSON bytes, plus a gzipped copy, so serving one is a plain byte write:
+ * no query and no Jackson on the request path.
+ *
+ * Every snapshot carries the catalog version ({@link ResourceVersions}) it was built from. A room
+ * write bumps the version and queues a rebuild on a background thread; until the rebuild is done
+ * the snapshot no longer matches and requests take the regular query path, so nobody gets a
+ * catalog older than a write that has already returned.
+ */
+@Component
+public class RoomCatalogCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCatalogCache.class);
+
+    // Smaller bodies are not worth the gzip header and the client's inflate
+    private static final int MIN_GZIP_SIZE = 1024;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "room-catalog-cache");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+
+    private volatile Snapshot snapshot;
+
+    // One encoded view; gzip is null when the body is too small to be worth compressing
+    public record View(String etag, byte[] json, byte[] gzip) {
+
+        // A compressed body is a different representation, so it needs a tag of its own
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+    }
+
+    private record Snapshot(long version, View all, View available, Map<String, View> byCategory, View empty) {
+    }
+
+    public Optional<View> all() {
+        return current().map(Snapshot::all);
+    }
+
+    public Optional<View> available() {
+        return current().map(Snapshot::available);
+    }
+
+    public Optional<View> category(String category) {
+        return current().map(s -> s.byCategory().getOrDefault(categoryKey(category), s.empty()));
+    }
+
+    @EventListener({ApplicationReadyEvent.class, RoomSavedEvent.class, RoomDeletedEvent.class})
+    public void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            builder.execute(this::rebuild);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        builder.shutdownNow();
+    }
+
+    private Optional<Snapshot> current() {
+        Snapshot current = snapshot;
+        if (current != null && current.version() == resourceVersions.roomsVersion()) {
+            return Optional.of(current);
+        }
+        requestRebuild();
+        return Optional.empty();
+    }
+
+    private void rebuild() {
+        // Cleared before reading the version: a write from here on queues another rebuild
+        rebuildQueued.set(false);
+        try {
+            long version = resourceVersions.roomsVersion();
+            String etag = resourceVersions.roomsTag(version);
+            // On the primary: the snapshot is stamped with the primary's version, which a lagging
+            // replica may not have caught up with yet
+            List<HotelRoom> rooms = transactionTemplate.execute(status -> hotelRoomRepository.findAll());
+
+            Map<String, View> byCategory = new HashMap<>();
+            rooms.stream()
+                    .filter(room -> room.getCategory() != null)
+                    .collect(Collectors.groupingBy(room -> categoryKey(room.getCategory())))
+                    .forEach((category, inCategory) -> byCategory.put(category, encode(etag, inCategory)));
+
+            snapshot = new Snapshot(version,
+                    encode(etag, rooms),
+                    encode(etag, rooms.stream().filter(HotelRoom::isAvailable).toList()),
+                    byCategory,
+                    encode(etag, List.of()));
+        } catch (RuntimeException e) {
+            // requests keep using the query path; the next one asks for another rebuild
+            log.warn("Could not rebuild the room catalog cache", e);
+        }
+    }
+
+    private View encode(String etag, List<HotelRoom> rooms) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(rooms);
+            return new View(etag, json, json.length >= MIN_GZIP_SIZE ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode the room catalog", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // Same matching as findByCategoryIgnoreCase
+    private static String categoryKey(String category) {
+        return category.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed pool of locks shared out by room id. Bookings for the same room always meet on
+ * the same lock, while bookings for different rooms almost never do.
+ */
+class RoomLockStripes {
+
+    private final Lock[] locks;
+    private final int mask;
+
+    RoomLockStripes(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        locks = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        mask = size - 1;
+    }
+
+    Lock forRoom(Long roomId) {
+        return locks[stripeOf(roomId)];
+    }
+
+    // Distinct locks covering all the rooms, in stripe order so that callers taking several
+    // at once can never deadlock each other
+    List<Lock> forRooms(Collection<Long> roomIds) {
+        return roomIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .mapToObj(stripe -> locks[stripe])
+                .toList();
+    }
+
+    private int stripeOf(Long roomId) {
+        int h = roomId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
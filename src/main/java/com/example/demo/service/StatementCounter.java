@@ -0,0 +1,103 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Sees every JDBC statement the application runs (the datasource is wrapped in a counting proxy,
+ * see StatementCountingConfig) and adds it to the scopes open on the current thread. A batch
+ * counts as one statement: it is one round trip.
+ *
+ * Scopes nest, so a test can wrap a whole MockMvc call in its own scope while the request keeps
+ * its per-endpoint count:
+ * <pre>
+ * try (StatementCounter.Scope statements = statementCounter.open()) {
+ *     mockMvc.perform(get("/api/rooms/search"));
+ *     assertTrue(statements.count() <= 2);
+ * }
+ * </pre>
+ * Statements slower than hotel.db.slow-statement-threshold go to the {@link StatementLog}.
+ */
+@Component
+public class StatementCounter implements QueryExecutionListener {
+
+    @Autowired
+    private StatementLog statementLog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hotel.db.slow-statement-threshold:200ms}")
+    private Duration slowThreshold;
+
+    private final ThreadLocal<Scope> current = new ThreadLocal<>();
+    private Counter slowStatements;
+
+    @PostConstruct
+    void init() {
+        slowStatements = meterRegistry.counter("hotel.db.slow-statements");
+    }
+
+    public Scope open() {
+        Scope scope = new Scope(current.get());
+        current.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (Scope scope = current.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+            scope.millis += execInfo.getElapsedTime();
+        }
+        if (execInfo.getElapsedTime() >= slowThreshold.toMillis() && !queryInfoList.isEmpty()) {
+            slowStatements.increment();
+            statementLog.slowStatement(queryInfoList.get(0).getQuery(), execInfo.getElapsedTime());
+        }
+    }
+
+    public final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private long count;
+        private long millis;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        // Time spent inside the driver, not counting the code between statements
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public void close() {
+            if (current.get() == this) {
+                if (parent == null) {
+                    current.remove();
+                } else {
+                    current.set(parent);
+                }
+            }
+        }
+    }
+}
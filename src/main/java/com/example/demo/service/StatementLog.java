@@ -0,0 +1,88 @@
+package com.example.demo.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Slow statements and statement budget violations, written to the "hotel.sql" logger off the
+ * request thread. Entries go into a ring buffer of hotel.db.log.capacity lines that a single
+ * writer thread drains; when it is full the oldest line is dropped (and counted in
+ * hotel.db.log.dropped), so a burst of slow queries never holds up the requests producing it.
+ * Only hotel.db.log.sample-rate of the entries are kept; the metrics still count all of them.
+ */
+@Component
+public class StatementLog {
+
+    private static final Logger log = LoggerFactory.getLogger("hotel.sql");
+
+    private static final int MAX_SQL_LENGTH = 500;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${hotel.db.log.capacity:1024}")
+    private int capacity;
+
+    @Value("${hotel.db.log.sample-rate:1.0}")
+    private double sampleRate;
+
+    private ArrayBlockingQueue<String> ring;
+    private Counter dropped;
+    private Thread writer;
+
+    @PostConstruct
+    void start() {
+        ring = new ArrayBlockingQueue<>(capacity);
+        dropped = meterRegistry.counter("hotel.db.log.dropped");
+        writer = Thread.ofPlatform().name("statement-log").daemon(true).start(this::drain);
+    }
+
+    @PreDestroy
+    void stop() {
+        writer.interrupt();
+    }
+
+    public void slowStatement(String sql, long millis) {
+        append("Slow statement (" + millis + " ms): " + abbreviate(sql));
+    }
+
+    public void budgetExceeded(String endpoint, long statements, int budget) {
+        append(endpoint + " ran " + statements + " statements, budget is " + budget);
+    }
+
+    private void append(String line) {
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        while (!ring.offer(line)) {
+            if (ring.poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                log.warn(ring.take());
+            }
+        } catch (InterruptedException e) {
+            // shutting down
+        }
+    }
+
+    private static String abbreviate(String sql) {
+        String flat = sql.replaceAll("\\s+", " ").trim();
+        return flat.length() <= MAX_SQL_LENGTH ? flat : flat.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
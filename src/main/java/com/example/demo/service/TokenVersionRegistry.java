@@ -0,0 +1,56 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.UserInfo;
+import com.example.demo.repository.UserInfoRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current token version of every user, held in memory so that checking a token for revocation
+ * costs no query. Entries are re-read after {@code hotel.security.token-version.ttl}, which bounds
+ * how long a revocation made on another instance takes to be seen here.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // users that no longer exist: no token version can match
+    private static final int UNKNOWN_USER = -1;
+
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+
+    @Value("${hotel.security.token-version.ttl:5m}")
+    private Duration ttl;
+
+    private LoadingCache<String, Integer> versions;
+
+    @PostConstruct
+    void init() {
+        versions = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(100_000)
+                .build(name -> userInfoRepository.findByName(name)
+                        .map(UserInfo::getTokenVersion)
+                        .orElse(UNKNOWN_USER));
+    }
+
+    public boolean isCurrent(String username, int tokenVersion) {
+        return versions.get(username) == tokenVersion;
+    }
+
+    // Invalidates every token issued to the user so far; false when there is no such user
+    public boolean revoke(String username) {
+        return userInfoRepository.findByName(username).map(user -> {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+            userInfoRepository.save(user);
+            versions.put(username, user.getTokenVersion());
+            return true;
+        }).orElse(false);
+    }
+}
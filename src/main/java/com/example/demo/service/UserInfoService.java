@@ -5,6 +5,9 @@ import com.example.demo.repository.UserInfoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
 
 @Service
 public class UserInfoService {
@@ -15,9 +18,25 @@ public class UserInfoService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    // Read-write, so the user is read from the primary (see UserInfoRepository.findByName)
+    @Transactional
+    public Optional<UserInfo> getUserByName(String name) {
+        return userInfoRepository.findByName(name);
+    }
+
     public String addUser(UserInfo userInfo) {
         userInfo.setPassword(passwordEncoder.encode(userInfo.getPassword()));
         userInfoRepository.save(userInfo);
         return "User added to system.";
     }
+
+    // Logs the user out everywhere (sign-out, compromised account); false when there is no such user.
+    // Read-write, so the version is read from and bumped on the primary
+    @Transactional
+    public boolean revokeTokens(String name) {
+        return tokenVersionRegistry.revoke(name);
+    }
 }
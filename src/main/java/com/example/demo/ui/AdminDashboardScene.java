@@ -1,5 +1,7 @@
 package com.example.demo.ui;
 
+import com.example.demo.ui.model.DashboardStats;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
 import javafx.geometry.Insets;
@@ -13,6 +15,7 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.paint.Color;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import org.springframework.http.*;
 import org.springframework.web.client.RestTemplate;
 
@@ -20,15 +23,17 @@ public class AdminDashboardScene {
 
     private final RestTemplate restTemplate = new RestTemplate();
     private final String jwtToken;
+    private final ChangeFeedClient changeFeed;
 
-    // Statistics data holders
-    private long totalRooms = 0;
-    private long availableRooms = 0;
-    private long totalReservations = 0;
-    private long activeReservations = 0;
+    // Statistics data holder
+    private DashboardStats stats = new DashboardStats();
 
-    public AdminDashboardScene(String jwtToken) {
+    // Bursts of changes (a bulk import, a group booking) end up in a single stats request
+    private final PauseTransition statsRefresh = new PauseTransition(Duration.seconds(1));
+
+    public AdminDashboardScene(String jwtToken, ChangeFeedClient changeFeed) {
         this.jwtToken = jwtToken;
+        this.changeFeed = changeFeed;
     }
 
     public VBox getContent() {
@@ -146,6 +151,10 @@ public class AdminDashboardScene {
 
                     // Add components to main layout
                     mainLayout.getChildren().addAll(statsContainer, chartSection);
+
+                    // From now on, refresh whenever a room or reservation changes
+                    statsRefresh.setOnFinished(e -> refreshStatistics(statsContainer, chartSection));
+                    changeFeed.addListener(change -> statsRefresh.playFromStart());
                 });
             }
 
@@ -158,58 +167,54 @@ public class AdminDashboardScene {
             }
         };
 
-        Thread dataThread = new Thread(dataTask);
-        dataThread.setDaemon(true);
-        dataThread.start();
+        BackgroundTasks.start(dataTask);
     }
 
     private void fetchStatistics() throws Exception {
-        totalRooms = restTemplate.exchange(
-                "http://localhost:8080/api/rooms/count",
+        stats = restTemplate.exchange(
+                "http://localhost:8080/api/stats",
                 HttpMethod.GET,
                 getEntity(),
-                Long.class
+                DashboardStats.class
         ).getBody();
+    }
 
-        availableRooms = restTemplate.exchange(
-                "http://localhost:8080/api/rooms/available/count",
-                HttpMethod.GET,
-                getEntity(),
-                Long.class
-        ).getBody();
+    private void refreshStatistics(HBox statsContainer, VBox chartSection) {
+        Task<Void> refreshTask = new Task<Void>() {
+            @Override
+            protected Void call() throws Exception {
+                fetchStatistics();
+                return null;
+            }
 
-        totalReservations = restTemplate.exchange(
-                "http://localhost:8080/reservations/count",
-                HttpMethod.GET,
-                getEntity(),
-                Long.class
-        ).getBody();
+            @Override
+            protected void succeeded() {
+                statsContainer.getChildren().clear();
+                populateStatsContainer(statsContainer);
+                ((PieChart) chartSection.getChildren().get(1)).getData().clear();
+                updatePieChart(chartSection);
+            }
+        };
 
-        activeReservations = restTemplate.exchange(
-                "http://localhost:8080/reservations/active/count",
-                HttpMethod.GET,
-                getEntity(),
-                Long.class
-        ).getBody();
+        BackgroundTasks.start(refreshTask);
     }
 
     private void populateStatsContainer(HBox container) {
-        // Calculate occupancy rate
-        double occupancyRate = totalRooms > 0 ?
-                ((double)(totalRooms - availableRooms) / totalRooms) * 100 : 0;
-
-        VBox roomsCard = createStatCard("Total Rooms", String.valueOf(totalRooms), "🏢", "rooms-card");
-        VBox availableCard = createStatCard("Available", String.valueOf(availableRooms), "✅", "available-card");
-        VBox reservationsCard = createStatCard("Total Bookings", String.valueOf(totalReservations), "📋", "reservations-card");
-        VBox activeCard = createStatCard("Active Bookings", String.valueOf(activeReservations), "🔥", "active-card");
-        VBox occupancyCard = createStatCard("Occupancy Rate", String.format("%.1f%%", occupancyRate), "📊", "occupancy-card");
-
-        container.getChildren().addAll(roomsCard, availableCard, reservationsCard, activeCard, occupancyCard);
+        VBox roomsCard = createStatCard("Total Rooms", String.valueOf(stats.getTotalRooms()), "🏢", "rooms-card");
+        VBox availableCard = createStatCard("Available", String.valueOf(stats.getAvailableRooms()), "✅", "available-card");
+        VBox reservationsCard = createStatCard("Total Bookings", String.valueOf(stats.getTotalReservations()), "📋", "reservations-card");
+        VBox activeCard = createStatCard("Active Bookings", String.valueOf(stats.getActiveReservations()), "🔥", "active-card");
+        VBox occupancyCard = createStatCard("Occupancy Rate", String.format("%.1f%%", stats.getOccupancyRate()), "📊", "occupancy-card");
+        VBox revenueCard = createStatCard("Revenue Today", String.format("$%.2f", stats.getRevenueToday()), "💰", "revenue-card");
+
+        container.getChildren().addAll(roomsCard, availableCard, reservationsCard, activeCard, occupancyCard, revenueCard);
     }
 
     private void updatePieChart(VBox chartSection) {
         PieChart pieChart = (PieChart) chartSection.getChildren().get(1);
 
+        long totalRooms = stats.getTotalRooms();
+        long availableRooms = stats.getAvailableRooms();
         long occupiedRooms = totalRooms - availableRooms;
 
         if (totalRooms > 0) {
@@ -0,0 +1,28 @@
+package com.example.demo.ui;
+
+/**
+ * Starts the scenes' background work (REST calls wrapped in JavaFX Tasks) off the FX thread.
+ *
+ * Each task gets a virtual thread: the work is almost all waiting on the server, and a dashboard
+ * refresh or a burst of search clicks no longer costs a platform thread per request. Start the
+ * client with -Dhotel.ui.virtual-threads=false to go back to daemon platform threads.
+ */
+public final class BackgroundTasks {
+
+    private static final boolean VIRTUAL = Boolean.parseBoolean(System.getProperty("hotel.ui.virtual-threads", "true"));
+
+    private BackgroundTasks() {
+    }
+
+    public static Thread start(Runnable task) {
+        return start(task, "background-task");
+    }
+
+    // Virtual threads are always daemon threads, so neither kind keeps the client alive after the window closes
+    public static Thread start(Runnable task, String name) {
+        if (VIRTUAL) {
+            return Thread.ofVirtual().name(name).start(task);
+        }
+        return Thread.ofPlatform().name(name).daemon(true).start(task);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.demo.ui;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javafx.application.Platform;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Follows the server's change feed (GET /api/changes, Server-Sent Events) on a background thread
+ * and hands each change to the registered listeners on the JavaFX thread. After a dropped
+ * connection it reconnects with Last-Event-ID so the server replays what was missed; when it
+ * cannot, the server sends a "reset" change and listeners should reload their data.
+ */
+public class ChangeFeedClient {
+
+    public static final String ROOM_CREATED = "room-created";
+    public static final String ROOM_UPDATED = "room-updated";
+    public static final String ROOM_DELETED = "room-deleted";
+    public static final String RESERVATION_BOOKED = "reservation-booked";
+    public static final String RESERVATION_UPDATED = "reservation-updated";
+    public static final String RESERVATION_PAID = "reservation-paid";
+    public static final String RESERVATION_CANCELLED = "reservation-cancelled";
+    public static final String RESET = "reset";
+
+    private static final String FEED_URL = "http://localhost:8080/api/changes";
+    private static final Duration RECONNECT_DELAY = Duration.ofSeconds(3);
+
+    private final String jwtToken;
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<Consumer<Change>> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile String lastEventId;
+    private volatile boolean running;
+    private Thread thread;
+
+    // One server event: type is one of the constants above, data the JSON body
+    public record Change(String type, String data) {
+    }
+
+    public ChangeFeedClient(String jwtToken) {
+        this.jwtToken = jwtToken;
+    }
+
+    public void addListener(Consumer<Change> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Change> listener) {
+        listeners.remove(listener);
+    }
+
+    // Reads the change body as the given model class (HotelRoom, Reservation, ...)
+    public <T> T read(Change change, Class<T> type) {
+        try {
+            return objectMapper.readValue(change.data(), type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable " + change.type() + " change: " + change.data(), e);
+        }
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = BackgroundTasks.start(this::follow, "change-feed");
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private void follow() {
+        while (running) {
+            try {
+                HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(FEED_URL))
+                        .header("Authorization", "Bearer " + jwtToken)
+                        .header("Accept", "text/event-stream");
+                if (lastEventId != null) {
+                    request.header("Last-Event-ID", lastEventId);
+                }
+                HttpResponse<Stream<String>> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofLines());
+                try (Stream<String> lines = response.body()) {
+                    if (response.statusCode() == 200) {
+                        readEvents(lines.iterator());
+                    } else {
+                        System.err.println("Change feed refused with HTTP " + response.statusCode());
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // connection lost: fall through and reconnect
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            try {
+                Thread.sleep(RECONNECT_DELAY.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // Minimal text/event-stream parser: fields accumulate until a blank line ends the event
+    private void readEvents(Iterator<String> lines) {
+        String id = null;
+        String type = "message";
+        StringBuilder data = new StringBuilder();
+        while (running && lines.hasNext()) {
+            String line = lines.next();
+            if (line.isEmpty()) {
+                if (data.length() > 0) {
+                    dispatch(new Change(type, data.toString()));
+                }
+                if (id != null) {
+                    lastEventId = id;
+                }
+                id = null;
+                type = "message";
+                data.setLength(0);
+                continue;
+            }
+            if (line.startsWith(":")) {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            String value = colon < 0 ? "" : line.substring(colon + 1);
+            if (value.startsWith(" ")) {
+                value = value.substring(1);
+            }
+            switch (field) {
+                case "id" -> id = value;
+                case "event" -> type = value;
+                case "data" -> {
+                    if (data.length() > 0) {
+                        data.append('\n');
+                    }
+                    data.append(value);
+                }
+                default -> { }
+            }
+        }
+    }
+
+    private void dispatch(Change change) {
+        Platform.runLater(() -> listeners.forEach(listener -> listener.accept(change)));
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.demo.ui;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client side of the server's ETags: remembers the body of every GET answered with an ETag,
+ * sends that tag back in If-None-Match, and turns a 304 Not Modified into the remembered body,
+ * so callers never notice the difference. Shared by all scenes; cleared on logout.
+ */
+public class EtagCache implements ClientHttpRequestInterceptor {
+
+    private static final int MAX_ENTRIES = 100;
+
+    private static final EtagCache INSTANCE = new EtagCache();
+
+    private record Entry(String etag, HttpHeaders headers, byte[] body) {
+    }
+
+    // Least recently used entries go first
+    private final Map<URI, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<URI, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // A RestTemplate whose GETs go through the shared cache
+    public static RestTemplate restTemplate() {
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(INSTANCE);
+        return restTemplate;
+    }
+
+    public static void clear() {
+        synchronized (INSTANCE.entries) {
+            INSTANCE.entries.clear();
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET) {
+            return execution.execute(request, body);
+        }
+
+        URI uri = request.getURI();
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(uri);
+        }
+        if (cached != null) {
+            request.getHeaders().setIfNoneMatch(cached.etag());
+        }
+
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+            response.close();
+            return new CachedResponse(HttpStatus.OK, cached.headers(), cached.body());
+        }
+
+        String etag = response.getHeaders().getETag();
+        if (!response.getStatusCode().is2xxSuccessful() || etag == null) {
+            return response;
+        }
+        byte[] content;
+        try (response) {
+            content = response.getBody().readAllBytes();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        synchronized (entries) {
+            entries.put(uri, new Entry(etag, headers, content));
+        }
+        return new CachedResponse(response.getStatusCode(), headers, content);
+    }
+
+    private record CachedResponse(HttpStatusCode statusCode, HttpHeaders headers, byte[] body) implements ClientHttpResponse {
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusCode instanceof HttpStatus status ? status.getReasonPhrase() : "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
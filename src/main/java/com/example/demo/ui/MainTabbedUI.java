@@ -15,6 +15,10 @@ import javafx.scene.image.ImageView;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.util.Duration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
 
 public class MainTabbedUI extends Application {
 
@@ -24,6 +28,8 @@ public class MainTabbedUI extends Application {
 
     private TabPane tabPane;
     private Stage primaryStage;
+    // Shared by every tab: one server connection per session
+    private ChangeFeedClient changeFeed;
 
     public MainTabbedUI(String jwtToken, String username, String role) {
         MainTabbedUI.jwtToken = jwtToken;
@@ -37,6 +43,10 @@ public class MainTabbedUI extends Application {
     public void start(Stage primaryStage) {
         this.primaryStage = primaryStage;
 
+        // Connect before the tabs load their data, so no change falls between the two
+        changeFeed = new ChangeFeedClient(jwtToken);
+        changeFeed.start();
+
         // Setup main layout
         BorderPane root = createMainLayout();
 
@@ -198,7 +208,7 @@ public class MainTabbedUI extends Application {
         // Dashboard Tab
         Tab dashboardTab = createStyledTab("📊 Dashboard", "dashboard-tab");
         try {
-            dashboardTab.setContent(new AdminDashboardScene(jwtToken).getContent());
+            dashboardTab.setContent(new AdminDashboardScene(jwtToken, changeFeed).getContent());
         } catch (Exception e) {
             System.err.println("Error creating AdminDashboardScene: " + e.getMessage());
             dashboardTab.setContent(createErrorContent("Dashboard"));
@@ -208,7 +218,7 @@ public class MainTabbedUI extends Application {
         // Room Management Tab
         Tab manageRoomsTab = createStyledTab("🏢 Manage Rooms", "rooms-tab");
         try {
-            manageRoomsTab.setContent(new RoomManagementScene(jwtToken).getContent());
+            manageRoomsTab.setContent(new RoomManagementScene(jwtToken, changeFeed).getContent());
         } catch (Exception e) {
             System.err.println("Error creating RoomManagementScene: " + e.getMessage());
             manageRoomsTab.setContent(createErrorContent("Room Management"));
@@ -228,7 +238,7 @@ public class MainTabbedUI extends Application {
         // Reservations Tab
         Tab reservationsTab = createStyledTab("📋 Reservations", "reservations-tab");
         try {
-            reservationsTab.setContent(new ReservationsScene(jwtToken).getContent());
+            reservationsTab.setContent(new ReservationsScene(jwtToken, changeFeed).getContent());
         } catch (Exception e) {
             System.err.println("Error creating ReservationsScene: " + e.getMessage());
             reservationsTab.setContent(createErrorContent("Reservations"));
@@ -252,7 +262,7 @@ public class MainTabbedUI extends Application {
         // My Reservations Tab
         Tab reservationsTab = createStyledTab("📋 My Reservations", "reservations-tab");
         try {
-            reservationsTab.setContent(new ReservationsScene(jwtToken).getContent());
+            reservationsTab.setContent(new ReservationsScene(jwtToken, changeFeed).getContent());
         } catch (Exception e) {
             System.err.println("Error creating ReservationsScene: " + e.getMessage());
             reservationsTab.setContent(createErrorContent("My Reservations"));
@@ -440,6 +450,10 @@ public class MainTabbedUI extends Application {
     }
 
     private void performLogout() {
+        changeFeed.stop();
+        EtagCache.clear();
+        revokeSession(jwtToken);
+
         // Clear session data
         LoginScene.JWT_TOKEN = null;
         LoginScene.LOGGED_IN_USERNAME = null;
@@ -455,6 +469,20 @@ public class MainTabbedUI extends Application {
         fadeOut.play();
     }
 
+    // Tells the server to stop accepting this user's tokens; if it cannot be reached the token
+    // still expires on its own
+    private static void revokeSession(String token) {
+        BackgroundTasks.start(() -> {
+            try {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set("Authorization", "Bearer " + token);
+                new RestTemplate().postForEntity("http://localhost:8080/logout", new HttpEntity<>(headers), Void.class);
+            } catch (RestClientException e) {
+                System.err.println("Logout was not recorded by the server: " + e.getMessage());
+            }
+        }, "logout");
+    }
+
     private void handleApplicationExit() {
         Alert exitAlert = new Alert(Alert.AlertType.CONFIRMATION);
         exitAlert.setTitle("Exit Application");
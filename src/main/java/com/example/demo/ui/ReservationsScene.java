@@ -7,6 +7,7 @@ import javafx.beans.property.SimpleLongProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -26,16 +27,21 @@ import org.springframework.web.client.RestTemplate;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class ReservationsScene {
 
     private final ObservableList<Reservation> masterList = FXCollections.observableArrayList();
+    private final FilteredList<Reservation> filteredList = new FilteredList<>(masterList);
     private final String jwtToken;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ChangeFeedClient changeFeed;
+    private final RestTemplate restTemplate = EtagCache.restTemplate();
 
-    public ReservationsScene(String jwtToken) {
+    // Changes are only applied once the list has been loaded
+    private boolean loaded;
+
+    public ReservationsScene(String jwtToken, ChangeFeedClient changeFeed) {
         this.jwtToken = jwtToken;
+        this.changeFeed = changeFeed;
     }
 
     public VBox getContent() {
@@ -49,7 +55,8 @@ public class ReservationsScene {
         title.getStyleClass().addAll("section-title", "reservations-title");
 
         // Create table first so we can reference it
-        TableView<Reservation> reservationTable = new TableView<>();
+        TableView<Reservation> reservationTable = new TableView<>(filteredList);
+        changeFeed.addListener(change -> applyChange(change, reservationTable));
 
         // Search section
         VBox searchSection = createSearchSection(reservationTable);
@@ -151,7 +158,6 @@ public class ReservationsScene {
         payCol.setPrefWidth(120);
 
         reservationTable.getColumns().addAll(idCol, nameCol, roomCol, inCol, outCol, payCol);
-        reservationTable.setItems(masterList);
     }
 
     private Callback<TableColumn<Reservation, Boolean>, TableCell<Reservation, Boolean>> createPaymentStatusCellFactory() {
@@ -173,15 +179,14 @@ public class ReservationsScene {
     }
 
     private void setupSearchFunctionality(TextField searchField, TableView<Reservation> reservationTable) {
+        // A filtered view rather than a copy, so changes pushed by the server show up under a search too
         searchField.textProperty().addListener((obs, oldVal, newVal) -> {
             if (newVal == null || newVal.trim().isEmpty()) {
-                reservationTable.setItems(masterList);
+                filteredList.setPredicate(null);
             } else {
                 String lower = newVal.toLowerCase();
-                reservationTable.setItems(masterList.stream()
-                        .filter(r -> r.getCustomerName().toLowerCase().contains(lower)
-                                || String.valueOf(r.getRoomId()).contains(lower))
-                        .collect(Collectors.toCollection(FXCollections::observableArrayList)));
+                filteredList.setPredicate(r -> r.getCustomerName().toLowerCase().contains(lower)
+                        || String.valueOf(r.getRoomId()).contains(lower));
             }
         });
     }
@@ -280,24 +285,65 @@ public class ReservationsScene {
 
     private void loadReservations(TableView<Reservation> reservationTable) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(jwtToken);
-            RequestEntity<Void> request = RequestEntity
-                    .get(URI.create("http://localhost:8080/reservations"))
-                    .headers(headers)
-                    .build();
-
-            ResponseEntity<Reservation[]> response = restTemplate.exchange(request, Reservation[].class);
-            masterList.setAll(response.getBody() != null ? Arrays.asList(response.getBody()) : List.of());
-
-            reservationTable.setItems(masterList);
-
+            fetchReservations();
             showAlert("Reservations loaded successfully: " + masterList.size() + " found.");
         } catch (Exception ex) {
             showAlert("Error loading reservations: " + ex.getMessage());
         }
     }
 
+    private void fetchReservations() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtToken);
+        RequestEntity<Void> request = RequestEntity
+                .get(URI.create("http://localhost:8080/reservations"))
+                .headers(headers)
+                .build();
+
+        ResponseEntity<Reservation[]> response = restTemplate.exchange(request, Reservation[].class);
+        masterList.setAll(response.getBody() != null ? Arrays.asList(response.getBody()) : List.of());
+        loaded = true;
+    }
+
+    // Applies a reservation change pushed by the server instead of reloading the whole list
+    private void applyChange(ChangeFeedClient.Change change, TableView<Reservation> reservationTable) {
+        if (!loaded) {
+            return;
+        }
+        switch (change.type()) {
+            case ChangeFeedClient.RESERVATION_BOOKED, ChangeFeedClient.RESERVATION_UPDATED, ChangeFeedClient.RESERVATION_PAID -> {
+                Reservation reservation = changeFeed.read(change, Reservation.class);
+                int index = indexOfReservation(reservation.getId());
+                if (index >= 0) {
+                    masterList.set(index, reservation);
+                } else {
+                    masterList.add(reservation);
+                }
+            }
+            case ChangeFeedClient.RESERVATION_CANCELLED -> {
+                Long id = changeFeed.read(change, Reservation.class).getId();
+                masterList.removeIf(reservation -> reservation.getId().equals(id));
+            }
+            case ChangeFeedClient.RESET -> {
+                try {
+                    fetchReservations();
+                } catch (Exception ex) {
+                    System.err.println("Could not reload reservations: " + ex.getMessage());
+                }
+            }
+            default -> { }
+        }
+    }
+
+    private int indexOfReservation(Long id) {
+        for (int i = 0; i < masterList.size(); i++) {
+            if (masterList.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private void cancelReservation(Reservation reservation, TableView<Reservation> reservationTable) {
         Alert confirm = new Alert(Alert.AlertType.CONFIRMATION);
         confirm.setTitle("Confirm Cancellation");
@@ -325,7 +371,6 @@ public class ReservationsScene {
                     );
 
                     masterList.remove(reservation);
-                    reservationTable.setItems(masterList);
                     showAlert("Reservation cancelled and room marked as available.");
                 } catch (Exception ex) {
                     showAlert("Error cancelling reservation: " + ex.getMessage());
@@ -29,8 +29,9 @@ public class RoomManagementScene {
     private final TableView<HotelRoom> tableView = new TableView<>();
     private final ObservableList<HotelRoom> roomList = FXCollections.observableArrayList();
     private final FilteredList<HotelRoom> filteredRooms;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate = EtagCache.restTemplate();
     private final String jwtToken;
+    private final ChangeFeedClient changeFeed;
 
     // UI Components
     private TextField searchField;
@@ -44,8 +45,9 @@ public class RoomManagementScene {
     private Button deleteBtn;
     private Button bulkDeleteBtn;
 
-    public RoomManagementScene(String jwtToken) {
+    public RoomManagementScene(String jwtToken, ChangeFeedClient changeFeed) {
         this.jwtToken = jwtToken;
+        this.changeFeed = changeFeed;
         this.filteredRooms = new FilteredList<>(roomList);
     }
 
@@ -94,8 +96,9 @@ public class RoomManagementScene {
         VBox wrapper = new VBox(scrollPane);
         VBox.setVgrow(scrollPane, Priority.ALWAYS);
 
-        // Load data asynchronously
+        // Load data asynchronously, then follow changes from the server
         loadRoomsAsync();
+        changeFeed.addListener(this::applyChange);
 
         return wrapper;
     }
@@ -515,9 +518,7 @@ public class RoomManagementScene {
             }
         };
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        BackgroundTasks.start(loadTask);
     }
 
     private void loadRooms() {
@@ -543,6 +544,37 @@ public class RoomManagementScene {
         }
     }
 
+    // Applies a room change pushed by the server; saves made from this screen arrive the same way
+    private void applyChange(ChangeFeedClient.Change change) {
+        switch (change.type()) {
+            case ChangeFeedClient.ROOM_CREATED, ChangeFeedClient.ROOM_UPDATED -> {
+                HotelRoom room = changeFeed.read(change, HotelRoom.class);
+                int index = indexOfRoom(room.getId());
+                if (index >= 0) {
+                    roomList.set(index, room);
+                } else {
+                    roomList.add(room);
+                }
+                updateCategoryFilter();
+            }
+            case ChangeFeedClient.ROOM_DELETED -> {
+                Long id = changeFeed.read(change, HotelRoom.class).getId();
+                roomList.removeIf(room -> room.getId().equals(id));
+            }
+            case ChangeFeedClient.RESET -> loadRoomsAsync();
+            default -> { }
+        }
+    }
+
+    private int indexOfRoom(Long id) {
+        for (int i = 0; i < roomList.size(); i++) {
+            if (roomList.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     private void updateCategoryFilter() {
         String currentValue = categoryFilter.getValue();
         categoryFilter.getItems().clear();
@@ -561,7 +593,7 @@ public class RoomManagementScene {
     // Inside createRoom()
     private void createRoom() {
         try {
-            RoomCreationDialog.show(null, this::loadRoomsAsync, jwtToken); // ✅ Token passed
+            RoomCreationDialog.show(null, () -> updateStatusLabel("Room created"), jwtToken); // ✅ Token passed
         } catch (Exception e) {
             showSimpleRoomCreationDialog();
         }
@@ -687,7 +719,6 @@ public class RoomManagementScene {
                     setLoading(false);
                     updateStatusLabel("Room created successfully");
                     showAlert("Room created successfully!", Alert.AlertType.INFORMATION);
-                    loadRoomsAsync();
                 });
             }
 
@@ -701,14 +732,12 @@ public class RoomManagementScene {
             }
         };
 
-        Thread createThread = new Thread(createTask);
-        createThread.setDaemon(true);
-        createThread.start();
+        BackgroundTasks.start(createTask);
     }
     // Inside editRoom(HotelRoom room)
     private void editRoom(HotelRoom room) {
         try {
-            RoomCreationDialog.show(room, this::loadRoomsAsync, jwtToken); // ✅ Token passed
+            RoomCreationDialog.show(room, () -> updateStatusLabel("Room updated"), jwtToken); // ✅ Token passed
         } catch (Exception e) {
             showSimpleRoomEditDialog(room);
         }
@@ -819,7 +848,6 @@ public class RoomManagementScene {
                     setLoading(false);
                     updateStatusLabel("Room updated successfully");
                     showAlert("Room updated successfully!", Alert.AlertType.INFORMATION);
-                    loadRoomsAsync();
                 });
             }
 
@@ -833,9 +861,7 @@ public class RoomManagementScene {
             }
         };
 
-        Thread updateThread = new Thread(updateTask);
-        updateThread.setDaemon(true);
-        updateThread.start();
+        BackgroundTasks.start(updateTask);
     }
 
     private void editSelectedRoom() {
@@ -893,7 +919,6 @@ public class RoomManagementScene {
                         Platform.runLater(() -> {
                             setLoading(false);
                             updateStatusLabel("Rooms deleted successfully");
-                            loadRoomsAsync();
                         });
                     }
 
@@ -907,9 +932,7 @@ public class RoomManagementScene {
                     }
                 };
 
-                Thread deleteThread = new Thread(deleteTask);
-                deleteThread.setDaemon(true);
-                deleteThread.start();
+                BackgroundTasks.start(deleteTask);
             }
         });
     }
@@ -32,7 +32,7 @@ public class UnifiedBookingScene {
     private final TableView<HotelRoom> roomTableView = new TableView<>();
     private final ObservableList<HotelRoom> roomList = FXCollections.observableArrayList();
     private final FilteredList<HotelRoom> filteredRooms;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate = EtagCache.restTemplate();
     private final String jwtToken;
 
     // UI Components
@@ -49,6 +49,10 @@ public class UnifiedBookingScene {
     private Label totalCostLabel;
     private ProgressIndicator loadingIndicator;
 
+    // Dates the listed rooms' stay totals were priced for (null when they carry none)
+    private LocalDate quotedCheckIn;
+    private LocalDate quotedCheckOut;
+
     public UnifiedBookingScene(String jwtToken) {
         this.jwtToken = jwtToken;
         this.filteredRooms = new FilteredList<>(roomList);
@@ -484,7 +488,13 @@ public class UnifiedBookingScene {
         }
     }
 
+    // The server's price when the room was found for the selected dates (it knows seasonal and
+    // weekend rates), a flat estimate otherwise
     private double calculateTotalCost(HotelRoom room) {
+        if (room.getStayTotalCents() != null && checkInDate.getValue() != null
+                && checkInDate.getValue().equals(quotedCheckIn) && checkOutDate.getValue().equals(quotedCheckOut)) {
+            return room.getStayTotalCents() / 100.0;
+        }
         long nights = getStayDuration();
         return room.getPricePerNight() * nights;
     }
@@ -564,9 +574,7 @@ public class UnifiedBookingScene {
             }
         };
 
-        Thread searchThread = new Thread(searchTask);
-        searchThread.setDaemon(true);
-        searchThread.start();
+        BackgroundTasks.start(searchTask);
     }
 
     private void searchRooms() {
@@ -590,10 +598,14 @@ public class UnifiedBookingScene {
             headers.set("Authorization", "Bearer " + jwtToken);
             HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
 
+            LocalDate searchedCheckIn = checkInDate.getValue();
+            LocalDate searchedCheckOut = checkOutDate.getValue();
             ResponseEntity<HotelRoom[]> response = restTemplate.exchange(
                     uri, HttpMethod.GET, requestEntity, HotelRoom[].class);
 
             Platform.runLater(() -> {
+                quotedCheckIn = searchedCheckIn;
+                quotedCheckOut = searchedCheckOut;
                 roomList.clear();
                 if (response.getBody() != null) {
                     roomList.addAll(Arrays.asList(response.getBody()));
@@ -633,9 +645,7 @@ public class UnifiedBookingScene {
             }
         };
 
-        Thread loadThread = new Thread(loadTask);
-        loadThread.setDaemon(true);
-        loadThread.start();
+        BackgroundTasks.start(loadTask);
     }
 
     private void loadAllRooms() {
@@ -648,6 +658,8 @@ public class UnifiedBookingScene {
                     "http://localhost:8080/api/rooms", HttpMethod.GET, requestEntity, HotelRoom[].class);
 
             Platform.runLater(() -> {
+                quotedCheckIn = null;
+                quotedCheckOut = null;
                 roomList.clear();
                 if (response.getBody() != null) {
                     roomList.addAll(Arrays.asList(response.getBody()));
@@ -19,7 +19,7 @@ public class UserBookingScene {
 
     private final String username;
     private final String jwtToken;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate = EtagCache.restTemplate();
     private final ObservableList<String> categories = FXCollections.observableArrayList("Any", "Standard", "Deluxe", "Suite");
 
     // Store references for updates
@@ -22,7 +22,7 @@ public class UserReservationsScene {
 
     private final String username;
     private final String jwtToken;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final RestTemplate restTemplate = EtagCache.restTemplate();
     private final ObservableList<Reservation> reservations = FXCollections.observableArrayList();
 
     // Store references for updates
@@ -2,6 +2,7 @@ package com.example.demo.ui.dialog;
 
 import com.example.demo.ui.model.HotelRoom;
 import com.example.demo.ui.model.Reservation;
+import com.fasterxml.jackson.databind.JsonNode;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
 import javafx.geometry.Insets;
@@ -19,6 +20,8 @@ import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
 
 public class BookingDialog {
 
@@ -144,7 +147,7 @@ public class BookingDialog {
         VBox customerCard = createCustomerCard();
 
         // Booking Summary Card
-        VBox summaryCard = createBookingSummaryCard(checkIn, checkOut);
+        VBox summaryCard = createBookingSummaryCard(roomId, checkIn, checkOut, jwtToken);
 
         // Action Buttons (always visible at bottom)
         HBox buttonSection = createButtonSection(roomId, checkIn, checkOut, jwtToken, dialog, customerCard);
@@ -232,7 +235,7 @@ public class BookingDialog {
         return card;
     }
 
-    private static VBox createBookingSummaryCard(LocalDate checkIn, LocalDate checkOut) {
+    private static VBox createBookingSummaryCard(Long roomId, LocalDate checkIn, LocalDate checkOut, String jwtToken) {
         VBox card = new VBox(12);
         card.getStyleClass().add("field-group");
 
@@ -259,6 +262,13 @@ public class BookingDialog {
         Label durationValue = new Label(nights + " night" + (nights != 1 ? "s" : ""));
         durationValue.getStyleClass().add("form-value");
 
+        // Priced by the server, which knows seasonal and weekend rates
+        Long totalCents = fetchQuoteCents(roomId, checkIn, checkOut, jwtToken);
+        Label totalLabel = new Label("Total Price:");
+        totalLabel.getStyleClass().add("form-label");
+        Label totalValue = new Label(totalCents != null ? String.format("$%.2f", totalCents / 100.0) : "Unavailable");
+        totalValue.getStyleClass().add("form-value");
+
         Label paymentLabel = new Label("Payment Status:");
         paymentLabel.getStyleClass().add("form-label");
         Label paymentValue = new Label("✅ Paid (Admin Booking)");
@@ -271,8 +281,10 @@ public class BookingDialog {
         summaryGrid.add(checkOutValue, 1, 1);
         summaryGrid.add(durationLabel, 0, 2);
         summaryGrid.add(durationValue, 1, 2);
-        summaryGrid.add(paymentLabel, 0, 3);
-        summaryGrid.add(paymentValue, 1, 3);
+        summaryGrid.add(totalLabel, 0, 3);
+        summaryGrid.add(totalValue, 1, 3);
+        summaryGrid.add(paymentLabel, 0, 4);
+        summaryGrid.add(paymentValue, 1, 4);
 
         card.getChildren().addAll(cardTitle, summaryGrid);
         return card;
@@ -373,6 +385,25 @@ public class BookingDialog {
         }
     }
 
+    // Total of the stay in cents from /api/quotes, null when it could not be priced
+    private static Long fetchQuoteCents(Long roomId, LocalDate checkIn, LocalDate checkOut, String jwtToken) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("Authorization", "Bearer " + jwtToken);
+            Map<String, Object> request = Map.of(
+                    "roomIds", List.of(roomId),
+                    "stays", List.of(Map.of("checkIn", checkIn.toString(), "checkOut", checkOut.toString())));
+
+            JsonNode quotes = new RestTemplate().postForObject(
+                    "http://localhost:8080/api/quotes", new HttpEntity<>(request, headers), JsonNode.class);
+            JsonNode total = quotes != null && quotes.size() > 0 ? quotes.get(0).get("totalCents") : null;
+            return total != null && total.isNumber() ? total.asLong() : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
     private static boolean performBooking(Long roomId, String customerName, LocalDate checkIn, LocalDate checkOut, String jwtToken) {
         try {
             Reservation reservation = new Reservation();
@@ -393,7 +424,7 @@ public class BookingDialog {
 
             // Fetch full room details for receipt
             HotelRoom fullRoom = fetchRoomDetails(roomId, jwtToken);
-            showReceiptAlert(fullRoom, customerName, checkIn, checkOut);
+            showReceiptAlert(fullRoom, customerName, checkIn, checkOut, fetchQuoteCents(roomId, checkIn, checkOut, jwtToken));
 
             return true;
 
@@ -453,7 +484,7 @@ public class BookingDialog {
         alert.showAndWait();
     }
 
-    private static void showReceiptAlert(HotelRoom room, String customerName, LocalDate checkIn, LocalDate checkOut) {
+    private static void showReceiptAlert(HotelRoom room, String customerName, LocalDate checkIn, LocalDate checkOut, Long totalCents) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("Booking Confirmed");
         alert.setHeaderText("🎉 Booking successful!");
@@ -476,7 +507,7 @@ public class BookingDialog {
 
         alert.showAndWait().ifPresent(type -> {
             if (type == showReceiptBtn) {
-                ReceiptDialog.show(room, customerName, checkIn, checkOut);
+                ReceiptDialog.show(room, customerName, checkIn, checkOut, totalCents);
             }
         });
     }
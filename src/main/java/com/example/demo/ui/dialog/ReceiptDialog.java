@@ -19,7 +19,8 @@ import java.text.DecimalFormat;
 
 public class ReceiptDialog {
 
-    public static void show(HotelRoom room, String customerName, LocalDate checkIn, LocalDate checkOut) {
+    // totalCents is the server's quote for the stay; without one the flat nightly price is used
+    public static void show(HotelRoom room, String customerName, LocalDate checkIn, LocalDate checkOut, Long totalCents) {
         Stage dialog = new Stage();
         dialog.initModality(Modality.APPLICATION_MODAL);
         dialog.setTitle("Booking Receipt");
@@ -40,7 +41,7 @@ public class ReceiptDialog {
 
         int nights = (int) ChronoUnit.DAYS.between(checkIn, checkOut);
         double price = room.getPricePerNight();
-        double total = price * nights;
+        double total = totalCents != null ? totalCents / 100.0 : price * nights;
         DecimalFormat df = new DecimalFormat("$#,##0.00");
 
         int row = 0;
@@ -1,5 +1,6 @@
 package com.example.demo.ui.dialog;
 
+import com.example.demo.ui.BackgroundTasks;
 import com.example.demo.ui.model.HotelRoom;
 import javafx.application.Platform;
 import javafx.concurrent.Task;
@@ -355,9 +356,7 @@ public class RoomCreationDialog {
             }
         };
 
-        Thread saveThread = new Thread(saveTask);
-        saveThread.setDaemon(true);
-        saveThread.start();
+        BackgroundTasks.start(saveTask);
     }
 
     private static void showStyledAlert(Alert.AlertType type, String title, String header, String content) {
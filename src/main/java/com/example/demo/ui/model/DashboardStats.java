@@ -0,0 +1,40 @@
+package com.example.demo.ui.model;
+
+import java.time.LocalDate;
+
+public class DashboardStats {
+    private LocalDate date;
+    private long totalRooms;
+    private long availableRooms;
+    private long occupiedRooms;
+    private double occupancyRate;
+    private double revenueToday;
+    private long totalReservations;
+    private long activeReservations;
+
+    public DashboardStats() {}
+
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+
+    public long getTotalRooms() { return totalRooms; }
+    public void setTotalRooms(long totalRooms) { this.totalRooms = totalRooms; }
+
+    public long getAvailableRooms() { return availableRooms; }
+    public void setAvailableRooms(long availableRooms) { this.availableRooms = availableRooms; }
+
+    public long getOccupiedRooms() { return occupiedRooms; }
+    public void setOccupiedRooms(long occupiedRooms) { this.occupiedRooms = occupiedRooms; }
+
+    public double getOccupancyRate() { return occupancyRate; }
+    public void setOccupancyRate(double occupancyRate) { this.occupancyRate = occupancyRate; }
+
+    public double getRevenueToday() { return revenueToday; }
+    public void setRevenueToday(double revenueToday) { this.revenueToday = revenueToday; }
+
+    public long getTotalReservations() { return totalReservations; }
+    public void setTotalReservations(long totalReservations) { this.totalReservations = totalReservations; }
+
+    public long getActiveReservations() { return activeReservations; }
+    public void setActiveReservations(long activeReservations) { this.activeReservations = activeReservations; }
+}
@@ -6,6 +6,8 @@ public class HotelRoom {
     private String category;
     private boolean available;
     private double pricePerNight;
+    // Set on search results: what the searched stay costs, in cents
+    private Long stayTotalCents;
 
     public HotelRoom() {
     }
@@ -33,6 +35,9 @@ public class HotelRoom {
     public double getPricePerNight() { return pricePerNight; }
     public void setPricePerNight(double pricePerNight) { this.pricePerNight = pricePerNight; }
 
+    public Long getStayTotalCents() { return stayTotalCents; }
+    public void setStayTotalCents(Long stayTotalCents) { this.stayTotalCents = stayTotalCents; }
+
     @Override
     public String toString() {
         return roomNumber + " (" + category + ")";
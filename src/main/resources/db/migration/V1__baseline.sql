@@ -0,0 +1,36 @@
+-- Baseline: the schema as it was before migrations were introduced (formerly database_schema.sql).
+-- Databases created earlier by ddl-auto are baselined at this version and start from V2, so
+-- every later change to these tables belongs in a migration of its own, never in this file.
+
+-- Create hotel_room table
+CREATE TABLE hotel_room (
+                            id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                            room_number VARCHAR(10) NOT NULL,
+                            category VARCHAR(20) NOT NULL,
+                            available BOOLEAN NOT NULL,
+                            price_per_night DOUBLE NOT NULL
+);
+
+-- Create reservation table
+CREATE TABLE reservation (
+                             id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                             customer_name VARCHAR(100) NOT NULL,
+                             room_id BIGINT NOT NULL,
+                             check_in_date DATE NOT NULL,
+                             check_out_date DATE NOT NULL,
+                             payment_status BOOLEAN NOT NULL,
+                             CONSTRAINT fk_reservation_room
+                                 FOREIGN KEY (room_id)
+                                     REFERENCES hotel_room(id)
+                                     ON DELETE RESTRICT
+                                     ON UPDATE CASCADE
+);
+
+-- Create user_info table
+CREATE TABLE user_info (
+                           id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                           name VARCHAR(100) NOT NULL,
+                           email VARCHAR(100) NOT NULL UNIQUE,
+                           password VARCHAR(255) NOT NULL,
+                           roles VARCHAR(50) NOT NULL
+);
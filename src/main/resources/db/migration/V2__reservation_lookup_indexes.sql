@@ -0,0 +1,14 @@
+-- Indexes behind the reservation lookups in ReservationRepository
+
+-- Stays of a room (findByRoomId, the overlap checks): room first, then the date range
+CREATE INDEX idx_reservation_room_stay ON reservation (room_id, check_in_date, check_out_date);
+
+-- Check-in range listings and the active count (check-out on or after today)
+CREATE INDEX idx_reservation_check_in ON reservation (check_in_date);
+CREATE INDEX idx_reservation_check_out ON reservation (check_out_date);
+
+-- Case-insensitive name search: compare against a lower-cased copy of the name instead of
+-- wrapping the column in upper(), which no index can serve. Kept in sync by the Reservation entity.
+ALTER TABLE reservation ADD COLUMN customer_name_normalized VARCHAR(100);
+UPDATE reservation SET customer_name_normalized = LOWER(TRIM(customer_name));
+CREATE INDEX idx_reservation_customer_name ON reservation (customer_name_normalized);
@@ -0,0 +1,15 @@
+-- Pooled id blocks for the entities whose inserts are batched (IDENTITY columns make Hibernate
+-- insert rows one by one). The pooled generators (allocationSize 50) take any next_val other
+-- than 0 as the end of a block and hand out the 50 ids just below it, so each row starts one
+-- block past the ids already in use.
+
+CREATE TABLE id_generator (
+                              sequence_name VARCHAR(64) PRIMARY KEY,
+                              next_val BIGINT NOT NULL
+);
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'hotel_room', COALESCE(MAX(id), 0) + 50 FROM hotel_room;
+
+INSERT INTO id_generator (sequence_name, next_val)
+SELECT 'reservation', COALESCE(MAX(id), 0) + 50 FROM reservation;
@@ -0,0 +1,11 @@
+-- Rooms and reservations take their ids from id_generator (V3) from now on. Without
+-- AUTO_INCREMENT an insert that forgets the id fails instead of taking one the generator
+-- will hand out later. The foreign keys on these columns stay as they are; MySQL only lets
+-- a referenced column be redefined with the checks off.
+
+SET FOREIGN_KEY_CHECKS = 0;
+
+ALTER TABLE hotel_room MODIFY id BIGINT NOT NULL;
+ALTER TABLE reservation MODIFY id BIGINT NOT NULL;
+
+SET FOREIGN_KEY_CHECKS = 1;
@@ -0,0 +1,34 @@
+-- One row per occupied night, check-in and check-out day included (see RoomNight), so
+-- overlapping stays of the same room are rejected by the primary key
+
+CREATE TABLE room_night (
+                            room_id BIGINT NOT NULL,
+                            night DATE NOT NULL,
+                            reservation_id BIGINT NOT NULL,
+                            PRIMARY KEY (room_id, night),
+                            CONSTRAINT fk_room_night_room
+                                FOREIGN KEY (room_id)
+                                    REFERENCES hotel_room(id)
+                                    ON DELETE RESTRICT
+                                    ON UPDATE CASCADE,
+                            CONSTRAINT fk_room_night_reservation
+                                FOREIGN KEY (reservation_id)
+                                    REFERENCES reservation(id)
+                                    ON DELETE CASCADE
+);
+
+-- The nights of the stays already booked. Stays that overlapped before the table existed
+-- cannot all own a shared night: the one booked first (lowest id) keeps it.
+INSERT INTO room_night (room_id, night, reservation_id)
+WITH RECURSIVE stay_night (reservation_id, room_id, night, check_out_date) AS (
+    SELECT id, room_id, CAST(check_in_date AS DATE), check_out_date
+    FROM reservation
+    WHERE check_in_date IS NOT NULL AND check_out_date IS NOT NULL
+    UNION ALL
+    SELECT reservation_id, room_id, CAST(night AS DATE) + INTERVAL '1' DAY, check_out_date
+    FROM stay_night
+    WHERE night < check_out_date
+)
+SELECT room_id, night, MIN(reservation_id)
+FROM stay_night
+GROUP BY room_id, night;
@@ -0,0 +1,2 @@
+-- Bumped to revoke every token issued to the user so far (TokenVersionRegistry)
+ALTER TABLE user_info ADD COLUMN token_version INT NOT NULL DEFAULT 0;
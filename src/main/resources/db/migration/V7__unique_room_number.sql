@@ -0,0 +1,3 @@
+-- Room numbers identify rooms in the bulk import and the catalog. The old schema script left
+-- them unconstrained; duplicates already stored have to be renumbered before this applies.
+ALTER TABLE hotel_room ADD CONSTRAINT uk_hotel_room_room_number UNIQUE (room_number);
@@ -0,0 +1,20 @@
+-- Nightly rates that differ from a room's price_per_night: seasons, weekends, events. A rate
+-- prices the nights from first_night to last_night (both included) of one room or of every room
+-- in a category, on the weekdays set in days_of_week (bit 0 = Monday ... bit 6 = Sunday).
+-- Room rates win over category rates, and among rates of the same kind the newest one wins.
+
+INSERT INTO id_generator VALUES ('nightly_rate', 0);
+
+CREATE TABLE nightly_rate (
+                              id BIGINT PRIMARY KEY,
+                              room_id BIGINT NULL,
+                              category VARCHAR(20) NULL,
+                              first_night DATE NOT NULL,
+                              last_night DATE NOT NULL,
+                              days_of_week INT NOT NULL,
+                              price_cents BIGINT NOT NULL,
+                              CONSTRAINT fk_nightly_rate_room
+                                  FOREIGN KEY (room_id)
+                                      REFERENCES hotel_room(id)
+                                      ON DELETE CASCADE
+);
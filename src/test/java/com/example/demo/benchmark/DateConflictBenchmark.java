@@ -0,0 +1,49 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// The availability check done for every booking, on a random room and stay
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DateConflictBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    private ReservationService reservationService;
+    private int rooms;
+    private long firstDay;
+    private int days;
+
+    @Setup
+    public void setUp(HotelDataState data) {
+        reservationService = data.bean(ReservationService.class);
+        rooms = data.rooms;
+        firstDay = HotelDataState.FIRST_DAY.toEpochDay();
+        days = (int) (data.lastDay.toEpochDay() - firstDay);
+    }
+
+    @Benchmark
+    public boolean hasDateConflict() {
+        long roomId = 1 + random.nextInt(rooms);
+        LocalDate checkIn = LocalDate.ofEpochDay(firstDay + random.nextInt(days));
+        return reservationService.hasDateConflict(roomId, checkIn, checkIn.plusDays(1 + random.nextInt(7)));
+    }
+}
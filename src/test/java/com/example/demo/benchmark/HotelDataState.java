@@ -0,0 +1,142 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.SpringbbotMongoAtlasApplication;
+import com.example.demo.entity.Reservation;
+import com.example.demo.service.RoomAvailabilityIndex;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Boots the application against its own in-memory H2 database and fills it with synthetic
+ * rooms and reservations through plain JDBC batches (going through JPA would take longer than
+ * the benchmarks themselves). Sizes are JMH parameters, e.g. {@code -p reservations=100000}.
+ *
+ * Every room gets the same number of back-to-back stays of 1-7 nights starting at {@link #FIRST_DAY},
+ * with gaps of 0-3 days, so searches over that period find a realistic mix of free and taken rooms.
+ * Only reservation rows are written: the room_night claims are not read by any benchmarked path.
+ */
+@State(Scope.Benchmark)
+public class HotelDataState {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2030, 1, 1);
+    static final String[] CATEGORIES = {"Single", "Double", "Suite"};
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT_ROOM =
+            "insert into hotel_room (id, room_number, category, available, price_per_night) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_RESERVATION =
+            "insert into reservation (id, customer_name, customer_name_normalized, room_id, check_in_date, check_out_date, payment_status)"
+                    + " values (?, ?, ?, ?, ?, ?, ?)";
+
+    @Param("10000")
+    public int rooms;
+
+    @Param("1000000")
+    public int reservations;
+
+    @Param("true")
+    public boolean availabilityIndex;
+
+    ConfigurableApplicationContext context;
+
+    // Last night a generated stay can cover, to keep the search windows inside the seeded period
+    LocalDate lastDay;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = configure(new SpringApplicationBuilder(SpringbbotMongoAtlasApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:hotel_bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "hotel.availability-index.enabled=" + availabilityIndex))
+                .run();
+        // The pool hands out connections with auto-commit off, so every write needs a transaction
+        seed(context.getBean(JdbcTemplate.class), context.getBean(TransactionTemplate.class));
+        if (availabilityIndex) {
+            context.getBean(RoomAvailabilityIndex.class).rebuild();
+        }
+        seeded();
+    }
+
+    // Hooks for states that need more than the bare services, e.g. a running web server
+    protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {
+        return application;
+    }
+
+    protected void seeded() {
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbc, TransactionTemplate transactions) {
+        List<Object[]> batch = new ArrayList<>();
+        for (long id = 1; id <= rooms; id++) {
+            batch.add(new Object[]{id, "R" + id, CATEGORIES[(int) (id % CATEGORIES.length)], true, 50.0 + id % 200});
+            batch = flush(jdbc, transactions, batch, INSERT_ROOM, false);
+        }
+        flush(jdbc, transactions, batch, INSERT_ROOM, true);
+
+        SplittableRandom random = new SplittableRandom(42);
+        int perRoom = Math.max(1, reservations / rooms);
+        long reservationId = 0;
+        long lastNight = FIRST_DAY.toEpochDay();
+        batch = new ArrayList<>();
+        for (long roomId = 1; roomId <= rooms && reservationId < reservations; roomId++) {
+            long day = FIRST_DAY.toEpochDay() + random.nextInt(4);
+            for (int i = 0; i < perRoom && reservationId < reservations; i++) {
+                long checkOut = day + random.nextInt(1, 8);
+                reservationId++;
+                String customerName = "Guest " + (reservationId % 5000);
+                batch.add(new Object[]{reservationId, customerName, Reservation.normalizeName(customerName), roomId,
+                        Date.valueOf(LocalDate.ofEpochDay(day)), Date.valueOf(LocalDate.ofEpochDay(checkOut)),
+                        random.nextBoolean()});
+                batch = flush(jdbc, transactions, batch, INSERT_RESERVATION, false);
+                lastNight = Math.max(lastNight, checkOut);
+                day = checkOut + 1 + random.nextInt(4);
+            }
+        }
+        flush(jdbc, transactions, batch, INSERT_RESERVATION, true);
+        lastDay = LocalDate.ofEpochDay(lastNight);
+
+        // Keep the pooled id generators clear of the seeded ids: next_val is the top of the next
+        // block of 50, as in V3__id_generator.sql
+        long reservationBlockTop = reservationId + 50;
+        transactions.executeWithoutResult(status -> {
+            jdbc.update("update id_generator set next_val = ? where sequence_name = 'hotel_room'", rooms + 50);
+            jdbc.update("update id_generator set next_val = ? where sequence_name = 'reservation'", reservationBlockTop);
+        });
+    }
+
+    private static List<Object[]> flush(JdbcTemplate jdbc, TransactionTemplate transactions, List<Object[]> batch,
+                                        String sql, boolean force) {
+        if (batch.isEmpty() || (!force && batch.size() < BATCH_SIZE)) {
+            return batch;
+        }
+        transactions.executeWithoutResult(status -> jdbc.batchUpdate(sql, batch));
+        return new ArrayList<>();
+    }
+}
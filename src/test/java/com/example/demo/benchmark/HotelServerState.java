@@ -0,0 +1,137 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.UserInfo;
+import com.example.demo.repository.UserInfoRepository;
+import com.example.demo.service.JwtService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The seeded application behind a real Tomcat on a random port, for load tests over HTTP.
+ *
+ * The in-memory H2 answers in microseconds, which would make every request CPU bound and hide
+ * what the request threads spend their time on against MySQL: waiting. Once the data is seeded,
+ * every statement therefore waits {@link #statementLatencyMs} first, standing in for the round
+ * trip to the database server.
+ */
+@State(Scope.Benchmark)
+public class HotelServerState extends HotelDataState {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    // With virtual threads the pool, not the thread count, bounds the requests doing JDBC at once
+    @Param("50")
+    public int poolSize;
+
+    @Param("2")
+    public int statementLatencyMs;
+
+    HttpClient client;
+    URI baseUri;
+    String authorization;
+
+    private volatile long latencyNanos;
+
+    @Override
+    protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {
+        return application
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "spring.datasource.hikari.minimum-idle=" + poolSize,
+                        "spring.jpa.show-sql=false")
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(Object bean, String beanName) {
+                        return bean instanceof DataSource dataSource ? new LaggingDataSource(dataSource) : bean;
+                    }
+                }));
+    }
+
+    @Override
+    protected void seeded() {
+        UserInfo user = new UserInfo();
+        user.setName("load-tester");
+        user.setEmail("load-tester@example.com");
+        user.setPassword("not used: requests carry a token");
+        user.setRoles("ROLE_USER");
+        user = bean(UserInfoRepository.class).save(user);
+        authorization = "Bearer " + bean(JwtService.class).generateToken(user);
+
+        baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        latencyNanos = statementLatencyMs * 1_000_000L;
+    }
+
+    @TearDown(Level.Trial)
+    public void closeClient() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    private final class LaggingDataSource extends DelegatingDataSource {
+
+        LaggingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return lagging(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return lagging(super.getConnection(username, password));
+        }
+
+        private Connection lagging(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof PreparedStatement statement ? lagging(statement) : result;
+                    });
+        }
+
+        private PreparedStatement lagging(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("execute") && latencyNanos > 0) {
+                            // parks rather than spins, so a virtual thread gives its carrier back meanwhile
+                            LockSupport.parkNanos(latencyNanos);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
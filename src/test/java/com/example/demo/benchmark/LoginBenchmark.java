@@ -0,0 +1,59 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second on a single thread (i.e. per core) for each bcrypt cost, through the same
+ * provider and encoder setup as SecurityConfig, minus the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@Threads(1)
+public class LoginBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int cost;
+
+    private DaoAuthenticationProvider provider;
+
+    @Setup
+    public void setUp() {
+        PasswordEncoder encoder = SecurityConfig.delegatingPasswordEncoder(cost);
+        UserDetails user = User.withUsername("guest")
+                .password(encoder.encode("secret"))
+                .roles("USER")
+                .build();
+        provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(username -> user);
+        provider.setPasswordEncoder(encoder);
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return provider.authenticate(new UsernamePasswordAuthenticationToken("guest", "secret"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservation pages over HTTP from many more clients than the pool has connections, with and
+ * without open-in-view. One page is a single query followed by the JSON of {@link #pageSize}
+ * reservations: with open-in-view the connection stays checked out while that JSON is written,
+ * without it the connection is back in the pool first. At the same pool size the difference in
+ * throughput is the number of extra requests the pool carries; hikaricp.connections.pending on
+ * /actuator/metrics shows the queue behind it.
+ *
+ * The effect is largest where the pool is the limit, e.g. {@code -Djmh.include=OpenInViewBenchmark
+ * -Djmh.args="-p poolSize=10 -p virtualThreads=true -p reservations=100000"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Threads(200)
+public class OpenInViewBenchmark {
+
+    @Param("500")
+    public int pageSize;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    private OpenInViewServerState server;
+
+    @Setup
+    public void setUp(OpenInViewServerState server) {
+        this.server = server;
+    }
+
+    @Benchmark
+    public int reservationPage() throws IOException, InterruptedException {
+        long after = random.nextInt(Math.max(1, server.reservations - pageSize));
+        HttpRequest request = HttpRequest.newBuilder(server.baseUri.resolve("/reservations?after=" + after + "&limit=" + pageSize))
+                .header("Authorization", server.authorization)
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = server.client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            // a failed request would otherwise look like a very fast one
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + new String(response.body()));
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+// The load test server, once as configured (no session per request) and once with Spring Boot's
+// default open-in-view, which keeps the request's connection until the response is written
+@State(Scope.Benchmark)
+public class OpenInViewServerState extends HotelServerState {
+
+    @Param({"false", "true"})
+    public boolean openInView;
+
+    @Override
+    protected SpringApplicationBuilder configure(SpringApplicationBuilder application) {
+        return super.configure(application).properties("spring.jpa.open-in-view=" + openInView);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.QuoteRequest;
+import com.example.demo.dto.StayQuote;
+import com.example.demo.entity.NightlyRate;
+import com.example.demo.service.PricingService;
+import com.example.demo.service.RateCalendar;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One /api/quotes request worth of stays (rooms x stays combinations) priced by the rate
+ * calendar, next to the same stays priced night by night against the list of rates.
+ *
+ * Every category gets weekend rates and a summer season for three years, and every tenth room a
+ * rate of its own, so most stays cross a few rated nights.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class QuoteBenchmark {
+
+    @Param("20")
+    public int quotedRooms;
+
+    @Param("100")
+    public int stays;
+
+    private PricingService pricingService;
+    private List<NightlyRate> rates;
+    private QuoteRequest request;
+
+    @Setup
+    public void setUp(HotelDataState data) {
+        pricingService = data.bean(PricingService.class);
+        if (pricingService.getRates().isEmpty()) {
+            for (int year = 2030; year < 2033; year++) {
+                for (String category : HotelDataState.CATEGORIES) {
+                    pricingService.addRate(rate(null, category, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31),
+                            NightlyRate.WEEKEND, 18000));
+                    pricingService.addRate(rate(null, category, LocalDate.of(year, 6, 15), LocalDate.of(year, 8, 31),
+                            NightlyRate.ALL_DAYS, 22000));
+                }
+            }
+            for (long roomId = 10; roomId <= data.rooms; roomId += 10) {
+                pricingService.addRate(rate(roomId, null, LocalDate.of(2031, 12, 20), LocalDate.of(2032, 1, 5),
+                        NightlyRate.ALL_DAYS, 30000));
+            }
+        }
+        // the rooms were seeded behind the application's back
+        data.bean(RateCalendar.class).reload();
+        rates = pricingService.getRates();
+
+        SplittableRandom random = new SplittableRandom(11);
+        List<Long> roomIds = new ArrayList<>();
+        for (int i = 0; i < quotedRooms; i++) {
+            roomIds.add(1L + random.nextInt(data.rooms));
+        }
+        List<QuoteRequest.Stay> dates = new ArrayList<>();
+        for (int i = 0; i < stays; i++) {
+            LocalDate checkIn = LocalDate.of(2030, 1, 1).plusDays(random.nextInt(3 * 365));
+            dates.add(new QuoteRequest.Stay(checkIn, checkIn.plusDays(1 + random.nextInt(14))));
+        }
+        request = new QuoteRequest(roomIds, dates);
+    }
+
+    @Benchmark
+    public List<StayQuote> rateCalendar() {
+        return pricingService.quote(request);
+    }
+
+    // Every night looks for the newest rate covering it: the room's own, else its category's
+    @Benchmark
+    public long nightByNight() {
+        long sum = 0;
+        for (Long roomId : request.roomIds()) {
+            String category = HotelDataState.CATEGORIES[(int) (roomId % HotelDataState.CATEGORIES.length)];
+            long baseCents = Math.round((50.0 + roomId % 200) * 100);
+            for (QuoteRequest.Stay stay : request.stays()) {
+                for (LocalDate night = stay.checkIn(); night.isBefore(stay.checkOut()); night = night.plusDays(1)) {
+                    sum += nightly(roomId, category, baseCents, night);
+                }
+            }
+        }
+        return sum;
+    }
+
+    private long nightly(Long roomId, String category, long baseCents, LocalDate night) {
+        DayOfWeek day = night.getDayOfWeek();
+        long categoryCents = -1;
+        long roomCents = -1;
+        for (NightlyRate rate : rates) {
+            if (night.isBefore(rate.getFirstNight()) || night.isAfter(rate.getLastNight()) || !rate.appliesOn(day)) {
+                continue;
+            }
+            if (roomId.equals(rate.getRoomId())) {
+                roomCents = rate.getPriceCents();
+            } else if (category.equalsIgnoreCase(rate.getCategory())) {
+                categoryCents = rate.getPriceCents();
+            }
+        }
+        return roomCents >= 0 ? roomCents : categoryCents >= 0 ? categoryCents : baseCents;
+    }
+
+    private static NightlyRate rate(Long roomId, String category, LocalDate first, LocalDate last, int days, long cents) {
+        NightlyRate rate = new NightlyRate();
+        rate.setRoomId(roomId);
+        rate.setCategory(category);
+        rate.setFirstNight(first);
+        rate.setLastNight(last);
+        rate.setDaysOfWeek(days);
+        rate.setPriceCents(cents);
+        return rate;
+    }
+}
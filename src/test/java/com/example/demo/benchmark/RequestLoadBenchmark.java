@@ -0,0 +1,87 @@
+package com.example.demo.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search and booking requests over HTTP from more concurrent clients than Tomcat has platform
+ * threads, once with the default thread pool and once with virtual threads. Throughput is
+ * requests per millisecond; the sample-time run reports the latency percentiles (p0.99 and up).
+ *
+ * Bookings go to random rooms and dates after the seeded period, so most are accepted and some
+ * collide; a 409 is a complete answer and counts like a 201. The full default dataset is not
+ * needed to make the queries realistic, e.g. {@code -Djmh.include=RequestLoadBenchmark
+ * -Djmh.args="-p reservations=100000 -p statementLatencyMs=5 -t 800"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Threads(400)
+public class RequestLoadBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    private HotelServerState server;
+    private long firstDay;
+    private int days;
+    private long firstFreeDay;
+
+    @Setup
+    public void setUp(HotelServerState server) {
+        this.server = server;
+        firstDay = HotelDataState.FIRST_DAY.toEpochDay();
+        days = (int) (server.lastDay.toEpochDay() - firstDay);
+        firstFreeDay = server.lastDay.toEpochDay() + 1;
+    }
+
+    @Benchmark
+    public int searchRooms() throws IOException, InterruptedException {
+        LocalDate checkIn = LocalDate.ofEpochDay(firstDay + random.nextInt(days));
+        String category = HotelDataState.CATEGORIES[random.nextInt(HotelDataState.CATEGORIES.length)];
+        return send(HttpRequest.newBuilder(server.baseUri.resolve("/api/rooms/search?category=" + category
+                        + "&minPrice=80&maxPrice=180&checkIn=" + checkIn + "&checkOut=" + checkIn.plusDays(3)))
+                .GET(), 200);
+    }
+
+    @Benchmark
+    public int bookRoom() throws IOException, InterruptedException {
+        LocalDate checkIn = LocalDate.ofEpochDay(firstFreeDay + random.nextInt(3 * 365));
+        String body = "{\"customerName\":\"Load Guest " + random.nextInt(5000) + "\",\"roomId\":" + (1 + random.nextInt(server.rooms))
+                + ",\"checkInDate\":\"" + checkIn + "\",\"checkOutDate\":\"" + checkIn.plusDays(1 + random.nextInt(3))
+                + "\",\"paymentStatus\":false}";
+        return send(HttpRequest.newBuilder(server.baseUri.resolve("/reservations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)), 201, 409);
+    }
+
+    private int send(HttpRequest.Builder request, int... expected) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = server.client.send(
+                request.header("Authorization", server.authorization).build(), HttpResponse.BodyHandlers.ofByteArray());
+        for (int status : expected) {
+            if (response.statusCode() == status) {
+                return response.body().length;
+            }
+        }
+        // a failed request would otherwise look like a very fast one
+        throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + new String(response.body()));
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.ReservationDTO;
+import com.example.demo.entity.Reservation;
+import com.example.demo.repository.ReservationRepository;
+import com.example.demo.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to ReservationDTO conversion on already loaded reservations, and the projection query
+ * behind GET /reservations/room/{id}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class ReservationMappingBenchmark {
+
+    @Param("1000")
+    public int loaded;
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    private ReservationService reservationService;
+    private List<Reservation> reservations;
+    private int rooms;
+
+    @Setup
+    public void setUp(HotelDataState data) {
+        reservationService = data.bean(ReservationService.class);
+        reservations = data.bean(ReservationRepository.class).findAll(PageRequest.of(0, loaded)).getContent();
+        rooms = data.rooms;
+    }
+
+    @Benchmark
+    public List<ReservationDTO> mapLoadedReservations() {
+        return reservations.stream().map(ReservationDTO::new).toList();
+    }
+
+    // Projected straight into DTOs by the query, no entities in between
+    @Benchmark
+    public List<ReservationDTO> loadRoomReservations() {
+        return reservationService.getReservationsByRoomId(1L + random.nextInt(rooms));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.service.HotelRoomService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Guest-side room search: a category, a price band and a random stay inside the seeded period
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RoomSearchBenchmark {
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    private HotelRoomService hotelRoomService;
+    private long firstDay;
+    private int days;
+
+    @Setup
+    public void setUp(HotelDataState data) {
+        hotelRoomService = data.bean(HotelRoomService.class);
+        firstDay = HotelDataState.FIRST_DAY.toEpochDay();
+        days = (int) (data.lastDay.toEpochDay() - firstDay);
+    }
+
+    @Benchmark
+    public List<HotelRoom> searchAvailableRooms() {
+        LocalDate checkIn = LocalDate.ofEpochDay(firstDay + random.nextInt(days));
+        String category = HotelDataState.CATEGORIES[random.nextInt(HotelDataState.CATEGORIES.length)];
+        return hotelRoomService.searchAvailableRooms(category, 80, 180, checkIn, checkIn.plusDays(3));
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.config;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.entity.UserInfo;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationService;
+import com.example.demo.service.RoomCatalogCache;
+import com.example.demo.service.UserInfoService;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Two embedded databases stand in for primary and replica; the "replica" never receives the
+// primary's writes, which makes every routing decision visible in the results
+@SpringBootTest(properties = {
+        "hotel.datasource.replica.jdbc-url=jdbc:h2:mem:hotel_replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "hotel.datasource.replica.username=sa",
+        "hotel.datasource.migrate-replica=true",
+        "hotel.datasource.read-your-writes-window=1s"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingTest {
+
+    private static final String INSERT_ROOM =
+            "insert into hotel_room (id, room_number, category, available, price_per_night) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_RESERVATION = "insert into reservation "
+            + "(id, customer_name, room_id, check_in_date, check_out_date, payment_status) values (?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserInfoService userInfoService;
+
+    @Autowired
+    private RoomCatalogCache roomCatalogCache;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyServiceMethodsUseTheReplicaAndWritesThePrimary() {
+        insert(replicaDataSource, 900_001L, "RO-1", "ReplicaOnly");
+        hotelRoomService.addRoom(new HotelRoom("RW-1", "PrimaryOnly", true, 80));
+
+        assertEquals(1, hotelRoomService.getRoomsByCategory("ReplicaOnly").size());
+        assertTrue(hotelRoomService.getRoomsByCategory("PrimaryOnly").isEmpty());
+        assertTrue(hotelRoomService.searchAvailableRooms("PrimaryOnly", null, null, null, null).isEmpty());
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        assertEquals(1, primary.queryForObject("select count(*) from hotel_room where room_number = 'RW-1'", Integer.class));
+        assertEquals(0, primary.queryForObject("select count(*) from hotel_room where room_number = 'RO-1'", Integer.class));
+    }
+
+    @Test
+    void ownBookingIsReadFromThePrimaryUntilTheWindowCloses() throws InterruptedException {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RYW-1", "Double", true, 120));
+        // the room itself has replicated, the booking has not
+        insert(replicaDataSource, room.getId(), room.getRoomNumber(), room.getCategory());
+
+        signIn("guest-a");
+        reservationService.reserveIfAvailable(
+                new Reservation("Window Guest", room, LocalDate.of(2036, 3, 1), LocalDate.of(2036, 3, 4), false))
+                .orElseThrow();
+        assertEquals(1, reservationService.getReservationsByCustomerName("Window Guest").size());
+
+        signIn("guest-b");
+        assertTrue(reservationService.getReservationsByCustomerName("Window Guest").isEmpty());
+
+        signIn("guest-a");
+        Thread.sleep(1_200);
+        assertTrue(reservationService.getReservationsByCustomerName("Window Guest").isEmpty());
+    }
+
+    // Responses tagged with the current version must hold every write that version counts, so
+    // neither the catalog snapshot nor the reservation list may come from the lagging replica
+    @Test
+    void versionTaggedViewsAreReadFromThePrimary() throws Exception {
+        // Nobody signed in: the writes open no read-your-writes window
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RW-3", "CatalogPrimary", true, 95));
+        reservationService.addReservation(new Reservation("Tagged Guest", room,
+                LocalDate.of(2037, 8, 1), LocalDate.of(2037, 8, 2), false));
+
+        Optional<RoomCatalogCache.View> view = roomCatalogCache.category("CatalogPrimary");
+        for (int i = 0; i < 100 && view.isEmpty(); i++) {
+            Thread.sleep(50);
+            view = roomCatalogCache.category("CatalogPrimary");
+        }
+        assertTrue(new String(view.orElseThrow().json(), StandardCharsets.UTF_8).contains("RW-3"));
+
+        mockMvc.perform(get("/reservations").with(user("reader")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.customerName == 'Tagged Guest')]").exists());
+        mockMvc.perform(get("/api/reservations/customer/Tagged Guest").with(user("reader")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    // Rows written straight to the primary, so no read-your-writes window is open: every read
+    // below is one the replica would have answered without the room or the reservation
+    @Test
+    void updatesLoadWhatTheyChangeFromThePrimary() throws Exception {
+        insert(primaryDataSource, 910_001L, "RW-2", "Double");
+        insertReservation(910_002L, 910_001L);
+        insertReservation(910_003L, 910_001L);
+
+        mockMvc.perform(put("/api/rooms/910001").with(user("clerk"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomNumber\":\"RW-2\",\"category\":\"Suite\",\"available\":true,\"pricePerNight\":150}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/reservations/910002").with(user("clerk"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Moved Guest\",\"roomId\":910001,"
+                                + "\"checkInDate\":\"2037-07-01\",\"checkOutDate\":\"2037-07-02\",\"paymentStatus\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerName").value("Moved Guest"));
+        mockMvc.perform(put("/reservations/910003/pay").with(user("cashier")))
+                .andExpect(status().isNoContent());
+
+        JdbcTemplate primary = new JdbcTemplate(primaryDataSource);
+        assertEquals("Suite", primary.queryForObject("select category from hotel_room where id = 910001", String.class));
+        assertEquals("Moved Guest", primary.queryForObject("select customer_name from reservation where id = 910002", String.class));
+        assertTrue(primary.queryForObject("select payment_status from reservation where id = 910003", Boolean.class));
+    }
+
+    @Test
+    void newUserCanLogInBeforeTheReplicaHasTheAccount() throws Exception {
+        UserInfo user = new UserInfo();
+        user.setName("routing-newcomer");
+        user.setEmail("routing-newcomer@example.com");
+        user.setPassword("s3cret-pass");
+        user.setRoles("ROLE_USER");
+        userInfoService.addUser(user);
+
+        MvcResult login = mockMvc.perform(post("/authenticate").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"routing-newcomer\",\"password\":\"s3cret-pass\"}"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(login))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    private void insertReservation(long id, long roomId) {
+        new TransactionTemplate(new DataSourceTransactionManager(primaryDataSource))
+                .executeWithoutResult(status -> new JdbcTemplate(primaryDataSource).update(INSERT_RESERVATION,
+                        id, "Primary Guest", roomId, LocalDate.of(2037, 6, 1), LocalDate.of(2037, 6, 3), false));
+    }
+
+    // The pools hand out connections with auto-commit off
+    private static void insert(HikariDataSource dataSource, long id, String roomNumber, String category) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .executeWithoutResult(status -> jdbc.update(INSERT_ROOM, id, roomNumber, category, true, 100.0));
+    }
+}
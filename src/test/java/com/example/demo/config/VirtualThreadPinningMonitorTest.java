@@ -0,0 +1,66 @@
+package com.example.demo.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "hotel.virtual-threads.pinned-threshold=10ms"
+})
+class VirtualThreadPinningMonitorTest {
+
+    private static final String CLASS = VirtualThreadPinningMonitorTest.class.getName();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Object monitor = new Object();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Test
+    void blockingInsideSynchronizedIsReportedAndReentrantLockIsNot() throws Exception {
+        Thread.ofVirtual().start(this::sleepUnderLock).join();
+        Thread.ofVirtual().start(this::sleepInSynchronized).join();
+
+        // JFR hands events to the stream about once a second
+        Timer pinned = null;
+        for (long deadline = System.currentTimeMillis() + 10_000; pinned == null && System.currentTimeMillis() < deadline; ) {
+            Thread.sleep(100);
+            pinned = meterRegistry.find(VirtualThreadPinningMonitor.METRIC).tag("site", CLASS + ".sleepInSynchronized").timer();
+        }
+        assertNotNull(pinned, "pinning in sleepInSynchronized was not reported");
+        assertTrue(pinned.count() >= 1);
+        assertNull(meterRegistry.find(VirtualThreadPinningMonitor.METRIC).tag("site", CLASS + ".sleepUnderLock").timer());
+    }
+
+    // The sleeps are called from these methods directly: the reported site is the caller of the JDK
+    private void sleepInSynchronized() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void sleepUnderLock() {
+        lock.lock();
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
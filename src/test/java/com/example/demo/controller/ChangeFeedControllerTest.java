@@ -0,0 +1,104 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void reconnectingClientGetsOnlyTheChangesItMissed() throws Exception {
+        MvcResult live = openFeed();
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("CF-1", "Suite", true, 200));
+        String created = awaitEvent(live, "room-created", "CF-1");
+
+        // the client drops here and misses an update and the deletion
+        room.setPricePerNight(220);
+        hotelRoomService.updateRoom(room);
+        hotelRoomService.deleteRoom(room.getId());
+
+        String replay = mockMvc.perform(get("/api/changes").header("Last-Event-ID", created))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse().getContentAsString();
+        assertFalse(replay.contains("event:room-created"));
+        assertTrue(replay.contains("event:room-updated\ndata:{\"id\":" + room.getId()));
+        assertTrue(replay.contains("\"pricePerNight\":220.0"));
+        assertTrue(replay.contains("event:room-deleted\ndata:{\"id\":" + room.getId() + "}"));
+    }
+
+    @Test
+    void clientTooFarBehindIsToldToReload() throws Exception {
+        String replay = mockMvc.perform(get("/api/changes").header("Last-Event-ID", "1"))
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(replay.contains("event:reset"));
+    }
+
+    @Test
+    void reservationLifecycleIsReported() throws Exception {
+        MvcResult live = openFeed();
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("CF-2", "Double", true, 120));
+        Reservation reservation = reservationService.addReservation(
+                new Reservation("Feed Guest", room, LocalDate.of(2034, 5, 1), LocalDate.of(2034, 5, 3), false));
+        awaitEvent(live, "reservation-booked", "Feed Guest");
+
+        reservation.setPaymentStatus(true);
+        reservationService.updateReservation(reservation);
+        awaitEvent(live, "reservation-paid", "Feed Guest");
+
+        reservationService.deleteReservation(reservation.getId());
+        awaitEvent(live, "reservation-cancelled", "\"id\":" + reservation.getId());
+    }
+
+    private MvcResult openFeed() throws Exception {
+        return mockMvc.perform(get("/api/changes"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // Waits for the dispatcher to deliver the event and returns its id
+    private static String awaitEvent(MvcResult feed, String type, String dataFragment) throws Exception {
+        Pattern event = Pattern.compile("id:(\\d+)\nevent:" + type + "\ndata:(.*)\n");
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Matcher matcher = event.matcher(feed.getResponse().getContentAsString());
+            while (matcher.find()) {
+                if (matcher.group(2).contains(dataFragment)) {
+                    return matcher.group(1);
+                }
+            }
+            Thread.sleep(20);
+        }
+        fail("No " + type + " event with " + dataFragment + " in: " + feed.getResponse().getContentAsString());
+        return null;
+    }
+}
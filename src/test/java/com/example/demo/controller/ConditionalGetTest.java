@@ -0,0 +1,86 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void unchangedReservationListIsAnsweredWithoutQuerying() throws Exception {
+        String etag = etagOf("/reservations");
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/reservations").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("CG-1", "Single", true, 70));
+        reservationService.addReservation(
+                new Reservation("Etag Guest", room, LocalDate.of(2035, 1, 1), LocalDate.of(2035, 1, 2), false));
+        mockMvc.perform(get("/reservations").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        assertNotEquals(etag, etagOf("/reservations"));
+    }
+
+    @Test
+    void roomWritesChangeTheCatalogTags() throws Exception {
+        String all = etagOf("/api/rooms");
+        String available = etagOf("/api/rooms/available");
+        mockMvc.perform(get("/api/rooms/available").header(HttpHeaders.IF_NONE_MATCH, available))
+                .andExpect(status().isNotModified());
+
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("CG-2", "Suite", true, 300));
+        mockMvc.perform(get("/api/rooms").header(HttpHeaders.IF_NONE_MATCH, all))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/rooms/available").header(HttpHeaders.IF_NONE_MATCH, available))
+                .andExpect(status().isOk());
+
+        String customer = etagOf("/api/reservations/customer/Etag Guest");
+        hotelRoomService.deleteRoom(room.getId());
+        mockMvc.perform(get("/api/reservations/customer/Etag Guest").header(HttpHeaders.IF_NONE_MATCH, customer))
+                .andExpect(status().isNotModified());
+    }
+
+    private String etagOf(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.CursorPage;
+import com.example.demo.dto.ReservationDTO;
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Other tests share the database, so every page starts from ids this test created
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CursorPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void roomPagesFollowTheCursorAndClampTheLimit() throws Exception {
+        List<HotelRoom> rooms = new ArrayList<>();
+        for (int i = 0; i < CursorPage.MAX_LIMIT + 10; i++) {
+            rooms.add(new HotelRoom("PG-" + i, "Single", true, 50));
+        }
+        rooms = hotelRoomRepository.saveAll(rooms);
+        long first = rooms.get(0).getId();
+        // Contexts cached by other test classes allocate id blocks of their own, so their rooms
+        // can sit between this test's: expect the ids the table holds from here on
+        List<Long> ids = hotelRoomRepository.findAll().stream()
+                .map(HotelRoom::getId)
+                .filter(id -> id >= first)
+                .sorted()
+                .toList();
+        long maxId = ids.get(ids.size() - 1);
+
+        mockMvc.perform(get("/api/rooms").param("after", String.valueOf(first - 1)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(first))
+                .andExpect(jsonPath("$.items[1].id").value(ids.get(1)))
+                .andExpect(jsonPath("$.nextCursor").value(ids.get(1)));
+
+        mockMvc.perform(get("/api/rooms").param("after", String.valueOf(first - 1)).param("limit", "100000"))
+                .andExpect(jsonPath("$.items.length()").value(CursorPage.MAX_LIMIT))
+                .andExpect(jsonPath("$.nextCursor").value(ids.get(CursorPage.MAX_LIMIT - 1)));
+        mockMvc.perform(get("/api/rooms").param("after", String.valueOf(first - 1)).param("limit", "0"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor").value(first));
+
+        // the last row: no further page
+        mockMvc.perform(get("/api/rooms").param("after", String.valueOf(maxId - 1)).param("limit", "5"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(maxId))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+        mockMvc.perform(get("/api/rooms").param("after", String.valueOf(maxId)).param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @Test
+    void reservationPagesFollowTheCursor() throws Exception {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("PG-R", "Double", true, 90));
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            LocalDate checkIn = LocalDate.of(2041, 1, 1).plusDays(10L * i);
+            created.add(reservationService.addReservation(
+                    new Reservation("Page Guest", room, checkIn, checkIn.plusDays(2), false)).getId());
+        }
+        long firstId = created.get(0);
+        List<Long> ids = reservationService.getAllReservations().stream()
+                .map(ReservationDTO::getId)
+                .filter(id -> id >= firstId)
+                .sorted()
+                .toList();
+
+        mockMvc.perform(get("/reservations").param("after", String.valueOf(firstId - 1)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(firstId))
+                .andExpect(jsonPath("$.items[0].roomId").value(room.getId()))
+                .andExpect(jsonPath("$.items[1].id").value(ids.get(1)))
+                .andExpect(jsonPath("$.nextCursor").value(ids.get(1)));
+
+        long maxId = ids.get(ids.size() - 1);
+        mockMvc.perform(get("/reservations").param("after", String.valueOf(maxId - 1)).param("limit", "2"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+        mockMvc.perform(get("/reservations").param("after", String.valueOf(maxId)).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(0))
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+}
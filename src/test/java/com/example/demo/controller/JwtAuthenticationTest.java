@@ -0,0 +1,135 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.UserInfoUserDetailsService;
+import com.example.demo.entity.UserInfo;
+import com.example.demo.repository.UserInfoRepository;
+import com.example.demo.service.JwtService;
+import com.example.demo.service.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /actuator/metrics stands in for any ADMIN-only endpoint
+@SpringBootTest(properties = "hotel.security.user-cache.ttl=500ms")
+@AutoConfigureMockMvc
+class JwtAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private ApplicationContext context;
+
+    // A token without roles is trusted for who it names, not for what that user may do
+    @Test
+    void tokenWithoutRolesSeesRoleChangesWithinTheUserCacheTtl() throws Exception {
+        UserInfo user = userInfoRepository.save(user("jwt-promoted", "ROLE_USER"));
+        String token = jwtService.generateToken(user.getName());
+        call(token).andExpect(status().isForbidden());
+
+        user.setRoles("ROLE_ADMIN");
+        userInfoRepository.save(user);
+        Thread.sleep(700);
+        call(token).andExpect(status().isOk());
+
+        userInfoRepository.delete(user);
+        Thread.sleep(700);
+        call(token).andExpect(status().isForbidden());
+    }
+
+    // Roles in the token are trusted as they are: no user lookup, no statement
+    @Test
+    void tokenWithRolesAuthenticatesFromItsClaims() throws Exception {
+        UserInfo user = userInfoRepository.save(user("jwt-claims", "ROLE_ADMIN"));
+        String token = jwtService.generateToken(user);
+        call(token).andExpect(status().isOk());
+
+        user.setRoles("ROLE_USER");
+        userInfoRepository.save(user);
+        Thread.sleep(700);
+        try (StatementCounter.Scope statements = statementCounter.open()) {
+            call(token).andExpect(status().isOk());
+            assertEquals(0, statements.count());
+        }
+    }
+
+    @Test
+    void logoutRevokesEveryTokenOfTheCaller() throws Exception {
+        UserInfo user = userInfoRepository.save(user("jwt-logout", "ROLE_ADMIN"));
+        UserInfo other = userInfoRepository.save(user("jwt-stays", "ROLE_ADMIN"));
+        String first = jwtService.generateToken(user);
+        String unrelated = jwtService.generateToken(other);
+        call(first).andExpect(status().isOk());
+
+        mockMvc.perform(post("/logout").header(HttpHeaders.AUTHORIZATION, "Bearer " + first))
+                .andExpect(status().isNoContent());
+
+        call(first).andExpect(status().isForbidden());
+        call(unrelated).andExpect(status().isOk());
+        // a fresh login works again
+        call(jwtService.generateToken(userInfoRepository.findByName(user.getName()).orElseThrow()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void adminsRevokeOtherUsersTokens() throws Exception {
+        String admin = jwtService.generateToken(userInfoRepository.save(user("jwt-admin", "ROLE_ADMIN")));
+        String target = jwtService.generateToken(userInfoRepository.save(user("jwt-target", "ROLE_ADMIN")));
+        String plain = jwtService.generateToken(userInfoRepository.save(user("jwt-plain", "ROLE_USER")));
+
+        mockMvc.perform(post("/users/jwt-target/revoke-tokens").header(HttpHeaders.AUTHORIZATION, "Bearer " + plain))
+                .andExpect(status().isForbidden());
+        call(target).andExpect(status().isOk());
+
+        mockMvc.perform(post("/users/jwt-target/revoke-tokens").header(HttpHeaders.AUTHORIZATION, "Bearer " + admin))
+                .andExpect(status().isNoContent());
+        call(target).andExpect(status().isForbidden());
+        call(admin).andExpect(status().isOk());
+
+        mockMvc.perform(post("/users/nobody/revoke-tokens").header(HttpHeaders.AUTHORIZATION, "Bearer " + admin))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void loginsAndRequestsShareOneUserDetailsService() {
+        Map<String, UserDetailsService> services = context.getBeansOfType(UserDetailsService.class);
+        assertEquals(1, services.size());
+        assertSame(services.values().iterator().next(), context.getBean(UserInfoUserDetailsService.class));
+    }
+
+    private ResultActions call(String token) throws Exception {
+        return mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private static UserInfo user(String name, String roles) {
+        UserInfo user = new UserInfo();
+        user.setName(name);
+        user.setEmail(name + "@example.com");
+        user.setPassword("unused");
+        user.setRoles(roles);
+        return user;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.entity.UserInfo;
+import com.example.demo.repository.UserInfoRepository;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.JwtService;
+import com.example.demo.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserInfoRepository userInfoRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void scrapeCoversEndpointsRepositoriesBookingChecksTokensAndThePool() throws Exception {
+        UserInfo user = new UserInfo();
+        user.setName("metrics-admin");
+        user.setEmail("metrics-admin@example.com");
+        user.setPassword("unused");
+        user.setRoles("ROLE_ADMIN");
+        String token = jwtService.generateToken(userInfoRepository.save(user));
+
+        mockMvc.perform(get("/api/rooms/search").param("category", "Single")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("MT-1", "Single", true, 60));
+        reservationService.reserveIfAvailable(
+                new Reservation("Metrics Guest", room, LocalDate.of(2037, 2, 1), LocalDate.of(2037, 2, 2), false));
+
+        // The scraper needs an ADMIN token like the rest of the actuator
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        String scrape = mockMvc.perform(get("/actuator/prometheus")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertSeries(scrape, "http_server_requests_seconds_bucket", "uri=\"/api/rooms/search\"");
+        assertSeries(scrape, "http_server_requests_seconds", "quantile=\"0.99\"", "uri=\"/api/rooms/search\"");
+        assertSeries(scrape, "spring_data_repository_invocations_seconds_count",
+                "method=\"searchAvailable\"", "repository=\"HotelRoomRepository\"");
+        assertSeries(scrape, "hotel_booking_date_conflict_seconds_count", "source=\"index\"");
+        assertSeries(scrape, "hotel_security_jwt_filter_seconds_count", "outcome=\"verified\"");
+        assertSeries(scrape, "hikaricp_connections_pending");
+        assertSeries(scrape, "hikaricp_connections_active");
+    }
+
+    private static void assertSeries(String scrape, String name, String... labels) {
+        boolean found = scrape.lines()
+                .filter(line -> line.startsWith(name + "{"))
+                .anyMatch(line -> Arrays.stream(labels).allMatch(line::contains));
+        assertTrue(found, name + " " + Arrays.toString(labels) + " missing from the scrape");
+    }
+}
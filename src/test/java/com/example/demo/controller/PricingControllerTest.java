@@ -0,0 +1,129 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.StatementCounter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class PricingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void staysArePricedFromCategoryAndRoomRates() throws Exception {
+        HotelRoom standard = hotelRoomService.addRoom(new HotelRoom("PR-1", "PriceTest", true, 100));
+        HotelRoom corner = hotelRoomService.addRoom(new HotelRoom("PR-2", "PriceTest", true, 120));
+
+        // 2041: Friday and Saturday nights of the category at 150, and corner at 200 all July
+        addRate("{\"category\":\"pricetest\",\"firstNight\":\"2041-01-01\",\"lastNight\":\"2041-12-31\",\"daysOfWeek\":48,\"priceCents\":15000}");
+        long julyRate = addRate("{\"roomId\":" + corner.getId() + ",\"firstNight\":\"2041-07-01\",\"lastNight\":\"2041-07-31\",\"priceCents\":20000}");
+
+        // Tue 1 to Tue 8 January: five weekday nights and one weekend
+        assertEquals(5 * 10000 + 2 * 15000, quote(standard.getId(), "2041-01-01", "2041-01-08"));
+        assertEquals(5 * 12000 + 2 * 15000, quote(corner.getId(), "2041-01-01", "2041-01-08"));
+        // Fri 28 June to 3 July: the weekend from the category, then the room's July rate
+        assertEquals(2 * 15000 + 12000 + 2 * 20000, quote(corner.getId(), "2041-06-28", "2041-07-03"));
+        // past the last rated night only the room price applies, Friday or not
+        assertEquals(4 * 10000, quote(standard.getId(), "2041-12-30", "2042-01-03"));
+
+        JsonNode unpriced = quotes("[" + standard.getId() + ", 999999999]", "2041-01-08", "2041-01-01");
+        assertTrue(unpriced.get(0).get("totalCents").isNull());
+        assertTrue(unpriced.get(1).get("totalCents").isNull());
+
+        mockMvc.perform(get("/api/rooms/search").param("category", "PriceTest")
+                        .param("checkIn", "2041-01-01").param("checkOut", "2041-01-08"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.roomNumber == 'PR-1')].stayTotalCents").value(80000))
+                .andExpect(jsonPath("$[?(@.roomNumber == 'PR-2')].stayTotalCents").value(90000));
+        mockMvc.perform(get("/api/rooms/search").param("category", "PriceTest"))
+                .andExpect(jsonPath("$[0].stayTotalCents").doesNotExist());
+
+        // the newer rate wins the night both cover
+        addRate("{\"category\":\"PriceTest\",\"firstNight\":\"2041-01-04\",\"lastNight\":\"2041-01-04\",\"priceCents\":9900}");
+        assertEquals(5 * 10000 + 15000 + 9900, quote(standard.getId(), "2041-01-01", "2041-01-08"));
+
+        mockMvc.perform(delete("/api/rates/" + julyRate)).andExpect(status().isOk());
+        assertEquals(2 * 15000 + 3 * 12000, quote(corner.getId(), "2041-06-28", "2041-07-03"));
+    }
+
+    @Test
+    void manyStaysArePricedWithoutTouchingTheDatabase() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("PR-3", "PriceBulk", true, 90));
+        String roomIds = "[" + room.getId() + "]";
+        String stays = LongStream.range(0, 1000)
+                .mapToObj(i -> "{\"checkIn\":\"2042-01-01\",\"checkOut\":\"" + LocalDate.of(2042, 1, 1).plusDays(i) + "\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+
+        try (StatementCounter.Scope statements = statementCounter.open()) {
+            JsonNode quotes = objectMapper.readTree(mockMvc.perform(post("/api/quotes").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"roomIds\":" + roomIds + ",\"stays\":" + stays + "}"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertEquals(1000, quotes.size());
+            assertEquals(999 * 9000, quotes.get(999).get("totalCents").asLong());
+            assertEquals(0, statements.count());
+        }
+
+        String tooManyRooms = Collections.nCopies(101, String.valueOf(room.getId())).stream()
+                .collect(Collectors.joining(",", "[", "]"));
+        mockMvc.perform(post("/api/quotes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomIds\":" + tooManyRooms + ",\"stays\":" + stays + "}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/rates").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomId\":" + room.getId() + ",\"category\":\"PriceBulk\",\"firstNight\":\"2042-01-01\",\"lastNight\":\"2042-01-02\",\"priceCents\":1}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private long addRate(String json) throws Exception {
+        String body = mockMvc.perform(post("/api/rates").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private long quote(Long roomId, String checkIn, String checkOut) throws Exception {
+        return quotes("[" + roomId + "]", checkIn, checkOut).get(0).get("totalCents").asLong();
+    }
+
+    private JsonNode quotes(String roomIds, String checkIn, String checkOut) throws Exception {
+        String body = mockMvc.perform(post("/api/quotes").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"roomIds\":" + roomIds + ",\"stays\":[{\"checkIn\":\"" + checkIn + "\",\"checkOut\":\"" + checkOut + "\"}]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body);
+    }
+}
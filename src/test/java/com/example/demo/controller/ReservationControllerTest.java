@@ -0,0 +1,165 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Without a session per request the room of a reservation is never loaded behind the scenes:
+// every step of a reservation's life has to work on what the service methods hand back
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void readUpdatePayAndDeleteWithoutOpenSessionInView() throws Exception {
+        assertTrue(context.getBeansOfType(OpenEntityManagerInViewInterceptor.class).isEmpty());
+
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RV-1", "Double", false, 110));
+        HotelRoom other = hotelRoomService.addRoom(new HotelRoom("RV-2", "Double", false, 115));
+        long id = reservationService.reserveIfAvailable(new Reservation("Lazy Guest", room,
+                LocalDate.of(2040, 6, 1), LocalDate.of(2040, 6, 3), false)).orElseThrow().getId();
+
+        mockMvc.perform(get("/reservations/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId").value(room.getId()));
+
+        // same room: the reservation keeps its unloaded room reference through the merge
+        mockMvc.perform(put("/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Lazy Guest\",\"checkInDate\":\"2040-06-02\",\"checkOutDate\":\"2040-06-04\",\"paymentStatus\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId").value(room.getId()))
+                .andExpect(jsonPath("$.checkInDate").value("2040-06-02"));
+
+        mockMvc.perform(put("/reservations/" + id + "/pay")).andExpect(status().isNoContent());
+
+        mockMvc.perform(put("/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Lazy Guest\",\"roomId\":" + other.getId()
+                                + ",\"checkInDate\":\"2040-06-02\",\"checkOutDate\":\"2040-06-04\",\"paymentStatus\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.roomId").value(other.getId()));
+
+        // deleting frees the room, which has to be loaded for that
+        mockMvc.perform(delete("/reservations/" + id)).andExpect(status().isOk());
+        assertTrue(hotelRoomService.getRoomById(other.getId()).orElseThrow().isAvailable());
+    }
+
+    @Test
+    void batchAnswersEveryEntryInRequestOrder() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RV-3", "Suite", true, 200));
+        HotelRoom other = hotelRoomService.addRoom(new HotelRoom("RV-4", "Suite", true, 210));
+        reservationService.reserveIfAvailable(new Reservation("Earlier Guest", other,
+                LocalDate.of(2040, 7, 1), LocalDate.of(2040, 7, 4), false)).orElseThrow();
+
+        String body = "["
+                + stay(room.getId(), "2040-07-01", "2040-07-03") + ","
+                + stay(null, "2040-07-01", "2040-07-03") + ","
+                // overlaps entry 0 of the same batch
+                + stay(room.getId(), "2040-07-03", "2040-07-05") + ","
+                // overlaps the earlier booking
+                + stay(other.getId(), "2040-07-04", "2040-07-06") + ","
+                + stay(other.getId(), "2040-07-09", "2040-07-08") + ","
+                + stay(other.getId(), "2040-07-10", "2040-07-11") + "]";
+
+        mockMvc.perform(post("/reservations/batch").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(6))
+                .andExpect(jsonPath("$[*].index").value(contains(0, 1, 2, 3, 4, 5)))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].reservation.id").isNumber())
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].message").value("Room ID is required."))
+                .andExpect(jsonPath("$[2].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[3].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[4].status").value("INVALID"))
+                .andExpect(jsonPath("$[5].status").value("CREATED"))
+                .andExpect(jsonPath("$[5].reservation.roomId").value(other.getId()));
+
+        assertEquals(1, reservationService.getReservationsByRoomId(room.getId()).size());
+        assertEquals(2, reservationService.getReservationsByRoomId(other.getId()).size());
+    }
+
+    @Test
+    void bookingThatEndsBeforeItStartsIsRejected() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RV-5", "Single", true, 80));
+
+        mockMvc.perform(post("/reservations").contentType(MediaType.APPLICATION_JSON)
+                        .content(stay(room.getId(), "2040-08-05", "2040-08-03")))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Check-out date must not be before check-in date."));
+
+        assertTrue(reservationService.getReservationsByRoomId(room.getId()).isEmpty());
+    }
+
+    @Test
+    void updateIsValidatedAndConflictCheckedLikeABooking() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RV-6", "Single", true, 80));
+        HotelRoom other = hotelRoomService.addRoom(new HotelRoom("RV-7", "Single", true, 80));
+        long id = reservationService.reserveIfAvailable(new Reservation("Moving Guest", room,
+                LocalDate.of(2040, 9, 1), LocalDate.of(2040, 9, 3), false)).orElseThrow().getId();
+        reservationService.reserveIfAvailable(new Reservation("Staying Guest", other,
+                LocalDate.of(2040, 9, 2), LocalDate.of(2040, 9, 4), false)).orElseThrow();
+
+        mockMvc.perform(put("/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(stay(room.getId(), "2040-09-03", "2040-09-01")))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Check-out date must not be before check-in date."));
+        mockMvc.perform(put("/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerName\":\"Moving Guest\",\"roomId\":" + room.getId() + ",\"paymentStatus\":false}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Check-in and check-out dates are required."));
+
+        mockMvc.perform(put("/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(stay(other.getId(), "2040-09-04", "2040-09-05")))
+                .andExpect(status().isConflict());
+        // Its own nights do not count against it
+        mockMvc.perform(put("/reservations/" + id).contentType(MediaType.APPLICATION_JSON)
+                        .content(stay(room.getId(), "2040-09-02", "2040-09-05")))
+                .andExpect(status().isOk());
+
+        assertFalse(reservationService.hasDateConflict(other.getId(), LocalDate.of(2040, 9, 5), LocalDate.of(2040, 9, 5)));
+        assertTrue(reservationService.hasDateConflict(room.getId(), LocalDate.of(2040, 9, 5), LocalDate.of(2040, 9, 5)));
+        assertFalse(reservationService.hasDateConflict(room.getId(), LocalDate.of(2040, 9, 1), LocalDate.of(2040, 9, 1)));
+    }
+
+    private static String stay(Long roomId, String checkIn, String checkOut) {
+        return "{\"customerName\":\"Group Guest\",\"roomId\":" + roomId
+                + ",\"checkInDate\":\"" + checkIn + "\",\"checkOutDate\":\"" + checkOut + "\",\"paymentStatus\":false}";
+    }
+}
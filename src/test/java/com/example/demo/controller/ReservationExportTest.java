@@ -0,0 +1,138 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationExportService;
+import com.example.demo.service.ReservationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class ReservationExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationExportService reservationExportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonHasOneReservationPerLine() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("EX-1", "Double", true, 100));
+        Reservation stay = reservationService.addReservation(new Reservation("Export Guest", room,
+                LocalDate.of(2042, 4, 1), LocalDate.of(2042, 4, 3), true));
+
+        List<String> lines = export("ndjson", MediaType.APPLICATION_NDJSON_VALUE).lines().toList();
+
+        assertEquals(reservationService.countReservations(), lines.size());
+        JsonNode exported = null;
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            if (row.get("id").asLong() == stay.getId()) {
+                exported = row;
+            }
+        }
+        assertEquals("Export Guest", exported.get("customerName").asText());
+        assertEquals(room.getId(), exported.get("roomId").asLong());
+        assertEquals("EX-1", exported.get("roomNumber").asText());
+        assertEquals("2042-04-03", exported.get("checkOutDate").asText());
+    }
+
+    @Test
+    void csvQuotesValuesAndNamesTheRoom() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("EX-2", "Suite", true, 250));
+        Reservation stay = reservationService.addReservation(new Reservation("Doe, \"JD\" Jane", room,
+                LocalDate.of(2042, 5, 1), LocalDate.of(2042, 5, 2), false));
+
+        List<String> lines = export("csv", "text/csv;charset=UTF-8").lines().toList();
+
+        assertEquals("id,customerName,roomId,roomNumber,checkInDate,checkOutDate,paymentStatus", lines.get(0));
+        assertEquals(reservationService.countReservations() + 1, lines.size());
+        assertTrue(lines.contains(stay.getId() + ",\"Doe, \"\"JD\"\" Jane\"," + room.getId() + ",EX-2,2042-05-01,2042-05-02,false"));
+    }
+
+    @Test
+    void unknownFormatIsRejectedBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/reservations/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    // Output leaves while the cursor is still open, long before the last row is read
+    @Test
+    void rowsAreWrittenWhileTheyAreRead() throws Exception {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("EX-3", "Single", true, 60));
+        List<Reservation> stays = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            LocalDate checkIn = LocalDate.of(2043, 1, 1).plusDays(3L * i);
+            stays.add(new Reservation("Streaming Guest " + i, room, checkIn, checkIn.plusDays(1), false));
+        }
+        reservationService.reserveAllIfAvailable(stays);
+
+        List<Boolean> writesInsideTheRead = new ArrayList<>();
+        OutputStream out = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+                writesInsideTheRead.add(TransactionSynchronizationManager.isActualTransactionActive());
+            }
+        };
+        reservationExportService.export(ReservationExportService.Format.NDJSON, out);
+
+        assertTrue(writesInsideTheRead.size() > 1);
+        assertTrue(writesInsideTheRead.get(0));
+    }
+
+    // The export runs with its own async timeout (hotel.reservations.export-timeout, 1h by default)
+    private String export(String format, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get("/reservations/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(60 * 60 * 1000L, started.getRequest().getAsyncContext().getTimeout());
+
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reservations." + format + "\""))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.service.HotelRoomService;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class RoomBulkImportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @SpyBean
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Test
+    void jsonArrayCreatesAndUpdatesByRoomNumber() throws Exception {
+        hotelRoomService.addRoom(new HotelRoom("BI-1", "Single", true, 70));
+
+        mockMvc.perform(post("/api/rooms/bulk").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"roomNumber":"BI-1","category":"Double","available":false,"pricePerNight":95},
+                         {"roomNumber":"BI-2","category":"Suite","available":true,"pricePerNight":240}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        HotelRoom updated = hotelRoomService.getRoomByNumber("BI-1").orElseThrow();
+        assertEquals("Double", updated.getCategory());
+        assertFalse(updated.isAvailable());
+        assertEquals(95, updated.getPricePerNight());
+        assertEquals(240, hotelRoomService.getRoomByNumber("BI-2").orElseThrow().getPricePerNight());
+    }
+
+    @Test
+    void ndjsonReportsBadRowsAndKeepsTheRest() throws Exception {
+        mockMvc.perform(post("/api/rooms/bulk").contentType(MediaType.APPLICATION_NDJSON).content("""
+                        {"roomNumber":"BI-3","category":"Single","available":true,"pricePerNight":60}
+                        {"roomNumber":"BI-4","category":"Single","available":true,"pricePerNight":0}
+                        {"roomNumber":"BI-5","category":"Single","available":true,"pricePerNight":"cheap"}
+                        {"category":"Single","available":true,"pricePerNight":60}
+                        {"roomNumber":"BI-3","category":"Single","available":true,"pricePerNight":65}
+                        {"roomNumber":"BI-6","category":"Double","available":true,"pricePerNight":110}
+                        """))
+                .andExpect(status().isOk())
+                // BI-3 twice in one chunk: the later row wins and the room is created once
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.updated").value(0))
+                .andExpect(jsonPath("$.failed").value(3))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].roomNumber").value("BI-4"))
+                .andExpect(jsonPath("$.errors[0].message").value("Price per night must be positive."))
+                .andExpect(jsonPath("$.errors[1].row").value(3))
+                .andExpect(jsonPath("$.errors[2].row").value(4))
+                .andExpect(jsonPath("$.errors[2].message").value("Room number is required."));
+
+        assertEquals(65, hotelRoomService.getRoomByNumber("BI-3").orElseThrow().getPricePerNight());
+        assertTrue(hotelRoomService.getRoomByNumber("BI-6").isPresent());
+        assertTrue(hotelRoomService.getRoomByNumber("BI-5").isEmpty());
+    }
+
+    @Test
+    void roomDeletedDuringTheImportIsCreatedAgain() throws Exception {
+        HotelRoom doomed = hotelRoomService.addRoom(new HotelRoom("BI-7", "Single", true, 70));
+        hotelRoomService.addRoom(new HotelRoom("BI-8", "Single", true, 70));
+        // The import finds the room, then it is deleted before the chunk is written
+        Answer<?> repository = mockingDetails(hotelRoomRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object found = repository.answer(invocation);
+            hotelRoomService.deleteRoom(doomed.getId());
+            return found;
+        }).when(hotelRoomRepository).findByRoomNumberIn(anyCollection());
+
+        mockMvc.perform(post("/api/rooms/bulk").contentType(MediaType.APPLICATION_JSON).content("""
+                        [{"roomNumber":"BI-7","category":"Suite","available":true,"pricePerNight":300},
+                         {"roomNumber":"BI-8","category":"Suite","available":true,"pricePerNight":310}]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.updated").value(1))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        List<String> categories = List.of("BI-7", "BI-8").stream()
+                .map(number -> hotelRoomService.getRoomByNumber(number).orElseThrow().getCategory())
+                .toList();
+        assertEquals(List.of("Suite", "Suite"), categories);
+    }
+}
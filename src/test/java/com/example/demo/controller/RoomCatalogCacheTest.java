@@ -0,0 +1,112 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.RoomCatalogCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser
+class RoomCatalogCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private RoomCatalogCache roomCatalogCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void currentCatalogIsServedFromEncodedBytes() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            hotelRoomService.addRoom(new HotelRoom("RC-" + i, i % 2 == 0 ? "Deluxe" : "Economy", i % 3 != 0, 100 + i));
+        }
+        awaitCurrentCache();
+        String expected = objectMapper.writeValueAsString(hotelRoomService.getAllRooms());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MvcResult plain = mockMvc.perform(get("/api/rooms")).andExpect(status().isOk()).andReturn();
+        assertEquals(expected, plain.getResponse().getContentAsString());
+        assertNull(plain.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+
+        MvcResult gzipped = mockMvc.perform(get("/api/rooms").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk()).andReturn();
+        assertEquals("gzip", gzipped.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertArrayEquals(plain.getResponse().getContentAsByteArray(), gunzip(gzipped.getResponse().getContentAsByteArray()));
+        mockMvc.perform(get("/api/rooms").header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipped.getResponse().getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+
+        assertEquals(0, statistics.getQueryExecutionCount() + statistics.getPrepareStatementCount());
+        assertEquals(objectMapper.writeValueAsString(hotelRoomService.getAvailableRooms()),
+                mockMvc.perform(get("/api/rooms/available")).andReturn().getResponse().getContentAsString());
+        assertEquals(objectMapper.writeValueAsString(hotelRoomService.getRoomsByCategory("deluxe")),
+                mockMvc.perform(get("/api/rooms/category/DELUXE")).andReturn().getResponse().getContentAsString());
+        mockMvc.perform(get("/api/rooms/category/no-such-category")).andExpect(content().string("[]"));
+    }
+
+    @Test
+    void writesAreVisibleBeforeTheRebuildFinishes() throws Exception {
+        awaitCurrentCache();
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("RC-NEW", "Deluxe", true, 180));
+        assertTrue(mockMvc.perform(get("/api/rooms")).andReturn().getResponse().getContentAsString().contains("\"RC-NEW\""));
+
+        room.setAvailable(false);
+        hotelRoomService.updateRoom(room);
+        String available = mockMvc.perform(get("/api/rooms/available")).andReturn().getResponse().getContentAsString();
+        assertFalse(available.contains("\"RC-NEW\""));
+
+        awaitCurrentCache();
+        assertFalse(mockMvc.perform(get("/api/rooms/available")).andReturn().getResponse().getContentAsString().contains("\"RC-NEW\""));
+    }
+
+    private void awaitCurrentCache() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (roomCatalogCache.all().isEmpty()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Room catalog cache was not rebuilt");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static byte[] gunzip(byte[] bytes) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readAllBytes();
+        }
+    }
+}
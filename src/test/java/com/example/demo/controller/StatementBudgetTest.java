@@ -0,0 +1,144 @@
+package com.example.demo.controller;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.filter.StatementBudget;
+import com.example.demo.filter.StatementBudgetInterceptor;
+import com.example.demo.service.HotelRoomService;
+import com.example.demo.service.ReservationService;
+import com.example.demo.service.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementBudgetTest.OverBudgetController.class)
+class StatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    @WithMockUser
+    void roomSearchStaysWithinTwoStatementsHoweverManyRoomsMatch() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            HotelRoom room = hotelRoomService.addRoom(new HotelRoom("SB-" + i, "Budget", true, 50 + i));
+            reservationService.reserveIfAvailable(new Reservation("Budget Guest " + i, room,
+                    LocalDate.of(2038, 1, 1 + i), LocalDate.of(2038, 1, 2 + i), false));
+        }
+
+        try (StatementCounter.Scope statements = statementCounter.open()) {
+            mockMvc.perform(get("/api/rooms/search").param("category", "Budget")
+                            .param("checkIn", "2038-01-05").param("checkOut", "2038-01-08"))
+                    .andExpect(status().isOk());
+            assertTrue(statements.count() <= 2, "search ran " + statements.count() + " statements");
+        }
+        assertEquals(0, violations("/api/rooms/search"));
+        assertTrue(meterRegistry.get(StatementBudgetInterceptor.STATEMENTS)
+                .tag("uri", "/api/rooms/search").summary().count() >= 1);
+    }
+
+    @Test
+    @WithMockUser
+    void reservationListingsAreOneProjectionQueryWithoutRoomLoads() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            HotelRoom room = hotelRoomService.addRoom(new HotelRoom("SL-" + i, "Listing", true, 70));
+            reservationService.reserveIfAvailable(new Reservation("Listing Guest", room,
+                    LocalDate.of(2039, 3, 1), LocalDate.of(2039, 3, 3), false));
+        }
+
+        for (String uri : new String[]{"/api/reservations/customer/listing guest", "/api/reservations/date-range",
+                "/reservations"}) {
+            try (StatementCounter.Scope statements = statementCounter.open()) {
+                mockMvc.perform(get(uri).param("start", "2039-03-01").param("end", "2039-03-01"))
+                        .andExpect(status().isOk());
+                assertEquals(1, statements.count(), uri);
+            }
+        }
+    }
+
+    @Test
+    @WithMockUser
+    void handlerOverItsBudgetIsCounted() throws Exception {
+        double before = violations("/test/over-budget");
+
+        mockMvc.perform(get("/test/over-budget")).andExpect(status().isOk());
+
+        assertEquals(before + 1, violations("/test/over-budget"));
+    }
+
+    // The async re-dispatch that writes the body is not a second request
+    @Test
+    @WithMockUser
+    void streamedExportIsRecordedOnce() throws Exception {
+        long before = recorded("/reservations/export");
+
+        MvcResult started = mockMvc.perform(get("/reservations/export").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        assertEquals(before + 1, recorded("/reservations/export"));
+    }
+
+    private long recorded(String uri) {
+        var summary = meterRegistry.find(StatementBudgetInterceptor.STATEMENTS).tag("uri", uri).summary();
+        return summary == null ? 0 : summary.count();
+    }
+
+    private double violations(String uri) {
+        var counter = meterRegistry.find(StatementBudgetInterceptor.VIOLATIONS).tag("uri", uri).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @TestConfiguration
+    @RestController
+    static class OverBudgetController {
+
+        @Autowired
+        private JdbcTemplate jdbcTemplate;
+
+        @StatementBudget(1)
+        @Transactional(readOnly = true)
+        @GetMapping("/test/over-budget")
+        public int threeStatements() {
+            for (int i = 0; i < 3; i++) {
+                jdbcTemplate.queryForObject("select count(*) from hotel_room", Integer.class);
+            }
+            return 3;
+        }
+    }
+}
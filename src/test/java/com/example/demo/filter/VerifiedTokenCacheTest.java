@@ -0,0 +1,32 @@
+package com.example.demo.filter;
+
+import com.example.demo.config.UserInfoUserDetails;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class VerifiedTokenCacheTest {
+
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(100);
+
+    @Test
+    void entriesAreFoundByTheirTokenOnly() {
+        VerifiedTokenCache.VerifiedToken verified = new VerifiedTokenCache.VerifiedToken("alice",
+                new UserInfoUserDetails("alice", List.of("ROLE_USER")), 3, Instant.now().plusSeconds(60));
+        cache.put("token-a", verified);
+
+        assertEquals(verified, cache.get("token-a"));
+        assertNull(cache.get("token-b"));
+    }
+
+    @Test
+    void expiredTokensAreNotReturned() {
+        cache.put("token-a", new VerifiedTokenCache.VerifiedToken("alice", null, null, Instant.now().minusSeconds(1)));
+
+        assertNull(cache.get("token-a"));
+    }
+}
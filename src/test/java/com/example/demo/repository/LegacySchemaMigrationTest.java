@@ -0,0 +1,163 @@
+package com.example.demo.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Upgrades databases the application created before Flyway took over the schema: one from the
+ * old database_schema.sql script and one from ddl-auto=update. Both already hold data, are
+ * baselined at V1 the way the main configuration does it and must take every later migration.
+ */
+class LegacySchemaMigrationTest {
+
+    // database_schema.sql as it was before the migrations
+    private static final List<String> SCHEMA_SCRIPT = List.of("""
+            CREATE TABLE hotel_room (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                room_number VARCHAR(10) NOT NULL,
+                category VARCHAR(20) NOT NULL,
+                available BOOLEAN NOT NULL,
+                price_per_night DOUBLE NOT NULL)""", """
+            CREATE TABLE reservation (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                customer_name VARCHAR(100) NOT NULL,
+                room_id BIGINT NOT NULL,
+                check_in_date DATE NOT NULL,
+                check_out_date DATE NOT NULL,
+                payment_status BOOLEAN NOT NULL,
+                CONSTRAINT fk_reservation_room FOREIGN KEY (room_id) REFERENCES hotel_room(id)
+                    ON DELETE RESTRICT ON UPDATE CASCADE)""", """
+            CREATE TABLE user_info (
+                id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                name VARCHAR(100) NOT NULL,
+                email VARCHAR(100) NOT NULL UNIQUE,
+                password VARCHAR(255) NOT NULL,
+                roles VARCHAR(50) NOT NULL)""");
+
+    // What Hibernate's ddl-auto=update made of the original entities
+    private static final List<String> HIBERNATE_SCHEMA = List.of("""
+            create table hotel_room (
+                available bit not null,
+                price_per_night float(53) not null,
+                id bigint not null auto_increment,
+                category varchar(255) not null,
+                room_number varchar(255) not null,
+                primary key (id))""",
+            "alter table hotel_room add constraint UK_hotel_room_number unique (room_number)", """
+            create table reservation (
+                payment_status bit not null,
+                check_in_date date,
+                check_out_date date,
+                id bigint not null auto_increment,
+                room_id bigint not null,
+                customer_name varchar(255),
+                primary key (id))""",
+            "alter table reservation add constraint FK_reservation_room foreign key (room_id) references hotel_room (id)", """
+            create table user_info (
+                id bigint not null auto_increment,
+                email varchar(255) not null,
+                name varchar(255) not null unique,
+                password varchar(255) not null,
+                roles varchar(255),
+                primary key (id))""");
+
+    @Test
+    void databaseFromTheSchemaScriptIsUpgraded() {
+        JdbcTemplate jdbc = legacyDatabase("legacy_script_db", SCHEMA_SCRIPT);
+
+        migrate(jdbc);
+
+        assertStoredDataCarriedOver(jdbc);
+        // Same tables and columns as a database built by the migrations alone
+        JdbcTemplate fresh = new JdbcTemplate(dataSource("legacy_fresh_db"));
+        migrate(fresh);
+        assertEquals(columns(fresh), columns(jdbc));
+    }
+
+    @Test
+    void databaseFromDdlAutoUpdateIsUpgraded() {
+        JdbcTemplate jdbc = legacyDatabase("legacy_hibernate_db", HIBERNATE_SCHEMA);
+
+        migrate(jdbc);
+
+        assertStoredDataCarriedOver(jdbc);
+    }
+
+    private static JdbcTemplate legacyDatabase(String name, List<String> schema) {
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource(name));
+        schema.forEach(jdbc::execute);
+        // Ids with gaps, as deletes leave them
+        jdbc.update("insert into hotel_room (id, room_number, category, available, price_per_night) values (3, '101', 'Single', true, 60)");
+        jdbc.update("insert into hotel_room (id, room_number, category, available, price_per_night) values (7, '102', 'Double', true, 90)");
+        jdbc.update("insert into reservation (id, customer_name, room_id, check_in_date, check_out_date, payment_status) "
+                + "values (12, ' Ada Lovelace ', 3, '2024-03-01', '2024-03-03', false)");
+        jdbc.update("insert into reservation (id, customer_name, room_id, check_in_date, check_out_date, payment_status) "
+                + "values (15, 'Alan Turing', 7, '2024-03-10', '2024-03-10', true)");
+        // Stored before overlaps were rejected: shares 3 March with reservation 12
+        jdbc.update("insert into reservation (id, customer_name, room_id, check_in_date, check_out_date, payment_status) "
+                + "values (20, 'Grace Hopper', 3, '2024-03-03', '2024-03-04', false)");
+        jdbc.update("insert into user_info (name, email, password, roles) values ('admin', 'admin@example.com', 'x', 'ROLE_ADMIN')");
+        return jdbc;
+    }
+
+    private static void assertStoredDataCarriedOver(JdbcTemplate jdbc) {
+        // Past the highest id in use: the first block hands out 8..57 and 21..70
+        assertEquals(57L, nextVal(jdbc, "hotel_room"));
+        assertEquals(70L, nextVal(jdbc, "reservation"));
+        assertEquals(0L, nextVal(jdbc, "nightly_rate"));
+
+        assertEquals(List.of(
+                        Map.of("reservation_id", 12L, "night", "2024-03-01"),
+                        Map.of("reservation_id", 12L, "night", "2024-03-02"),
+                        Map.of("reservation_id", 12L, "night", "2024-03-03"),
+                        Map.of("reservation_id", 20L, "night", "2024-03-04"),
+                        Map.of("reservation_id", 15L, "night", "2024-03-10")),
+                jdbc.queryForList("select reservation_id, cast(night as varchar) as night from room_night order by night"));
+
+        assertEquals("ada lovelace", jdbc.queryForObject(
+                "select customer_name_normalized from reservation where id = 12", String.class));
+        assertEquals(0, jdbc.queryForObject("select token_version from user_info where name = 'admin'", Integer.class));
+
+        // Ids come from id_generator only, and a room number is taken once
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+                "insert into hotel_room (room_number, category, available, price_per_night) values ('103', 'Single', true, 60)"));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbc.update(
+                "insert into hotel_room (id, room_number, category, available, price_per_night) values (8, '101', 'Single', true, 60)"));
+    }
+
+    private static long nextVal(JdbcTemplate jdbc, String sequence) {
+        return jdbc.queryForObject("select next_val from id_generator where sequence_name = ?", Long.class, sequence);
+    }
+
+    private static List<Map<String, Object>> columns(JdbcTemplate jdbc) {
+        return jdbc.queryForList("""
+                select table_name, column_name, data_type, character_maximum_length, is_nullable, is_identity
+                from information_schema.columns
+                where table_schema = 'public' and table_name <> 'flyway_schema_history'
+                order by table_name, column_name""");
+    }
+
+    private static void migrate(JdbcTemplate jdbc) {
+        Flyway.configure()
+                .dataSource(jdbc.getDataSource())
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+    }
+
+    private static DataSource dataSource(String name) {
+        return new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
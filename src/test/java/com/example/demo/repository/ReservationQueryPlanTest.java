@@ -0,0 +1,96 @@
+package com.example.demo.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the reservation lookups, captures the SQL Hibernate actually sends and asks H2 for its
+ * plan: each one has to be served by one of the V2 indexes rather than a scan of the table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.example.demo.repository.ReservationQueryPlanTest$RecordingInspector")
+class ReservationQueryPlanTest {
+
+    private static final LocalDate DAY = LocalDate.of(2034, 5, 1);
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void clearStatements() {
+        RecordingInspector.statements.clear();
+    }
+
+    @Test
+    void roomLookupSeeksOnRoomId() {
+        reservationRepository.findByRoomId(1L);
+        // the foreign key index serves this equally well, either is fine
+        String plan = planOfReservationQuery(1L);
+        assertFalse(plan.contains("tableScan"), () -> "Full scan:\n" + plan);
+        assertTrue(plan.contains("room_id = ?"), () -> "Expected a room_id seek in:\n" + plan);
+    }
+
+    @Test
+    void overlapCheckUsesTheRoomStayIndex() {
+        reservationRepository.existsOverlapping(1L, DAY, DAY.plusDays(3));
+        assertIndexUsed("idx_reservation_room_stay", 1L, DAY, DAY.plusDays(3));
+    }
+
+    @Test
+    void checkInRangeUsesTheCheckInIndex() {
+        reservationRepository.findByCheckInDateBetween(DAY, DAY.plusDays(7));
+        assertIndexUsed("idx_reservation_check_in", DAY, DAY.plusDays(7));
+    }
+
+    @Test
+    void activeCountUsesTheCheckOutIndex() {
+        reservationRepository.countByCheckOutDateGreaterThanEqual(DAY);
+        assertIndexUsed("idx_reservation_check_out", DAY);
+    }
+
+    @Test
+    void nameSearchUsesTheNormalizedNameIndex() {
+        reservationRepository.findByCustomerNameNormalized("ann smith");
+        assertIndexUsed("idx_reservation_customer_name", "ann smith");
+    }
+
+    private void assertIndexUsed(String index, Object... args) {
+        String plan = planOfReservationQuery(args);
+        assertFalse(plan.contains("tableScan"), () -> "Full scan:\n" + plan);
+        assertTrue(plan.contains(index), () -> "Expected " + index + " in:\n" + plan);
+    }
+
+    // Explains the first statement sent against the reservation table, with the same arguments
+    private String planOfReservationQuery(Object... args) {
+        String sql = RecordingInspector.statements.stream()
+                .filter(statement -> statement.contains("from reservation"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No reservation query was run"));
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    public static class RecordingInspector implements StatementInspector {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.DashboardStats;
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.NightlyRate;
+import com.example.demo.entity.Reservation;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class DashboardStatsServiceTest {
+
+    @Autowired
+    private DashboardStatsService dashboardStatsService;
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private PricingService pricingService;
+
+    @Test
+    void countersFollowRoomAndReservationWrites() {
+        DashboardStats start = dashboardStatsService.getStats();
+        LocalDate today = start.getDate();
+
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("ST-1", "Suite", true, 250.5));
+        HotelRoom other = hotelRoomService.addRoom(new HotelRoom("ST-2", "Single", false, 90));
+        Reservation current = reservationService.addReservation(
+                new Reservation("Stats Guest", room, today.minusDays(1), today.plusDays(2), true));
+        Reservation future = reservationService.addReservation(
+                new Reservation("Later Guest", other, today.plusDays(10), today.plusDays(12), false));
+
+        DashboardStats stats = dashboardStatsService.getStats();
+        assertEquals(start.getTotalRooms() + 2, stats.getTotalRooms());
+        assertEquals(start.getAvailableRooms() + 1, stats.getAvailableRooms());
+        assertEquals(start.getOccupiedRooms() + 1, stats.getOccupiedRooms());
+        assertEquals(start.getRevenueToday() + 250.5, stats.getRevenueToday(), 0.001);
+        assertEquals(start.getTotalReservations() + 2, stats.getTotalReservations());
+        assertEquals(start.getActiveReservations() + 2, stats.getActiveReservations());
+
+        // Moving the stay out of today frees the room for today's figures
+        current.setCheckInDate(today.plusDays(20));
+        current.setCheckOutDate(today.plusDays(21));
+        reservationService.updateReservation(current);
+        stats = dashboardStatsService.getStats();
+        assertEquals(start.getOccupiedRooms(), stats.getOccupiedRooms());
+        assertEquals(start.getRevenueToday(), stats.getRevenueToday(), 0.001);
+        assertEquals(start.getActiveReservations() + 2, stats.getActiveReservations());
+
+        reservationService.deleteReservation(future.getId());
+        stats = dashboardStatsService.getStats();
+        assertEquals(start.getAvailableRooms() + 2, stats.getAvailableRooms());
+        assertEquals(start.getTotalReservations() + 1, stats.getTotalReservations());
+        assertEquals(start.getActiveReservations() + 1, stats.getActiveReservations());
+
+        assertMatchesDatabase();
+    }
+
+    @Test
+    void roomPriceChangesReachTodaysRevenue() {
+        DashboardStats start = dashboardStatsService.getStats();
+        LocalDate today = start.getDate();
+
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("ST-3", "Double", true, 100));
+        reservationService.addReservation(new Reservation("Price Guest", room, today, today, true));
+        assertEquals(start.getRevenueToday() + 100, dashboardStatsService.getStats().getRevenueToday(), 0.001);
+
+        room.setPricePerNight(140);
+        hotelRoomService.updateRoom(room);
+        assertEquals(start.getRevenueToday() + 140, dashboardStatsService.getStats().getRevenueToday(), 0.001);
+
+        assertMatchesDatabase();
+    }
+
+    // Revenue is what tonight is charged, nightly rates included
+    @Test
+    void nightlyRatesPriceTodaysRevenue() {
+        DashboardStats start = dashboardStatsService.getStats();
+        LocalDate today = start.getDate();
+
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("ST-4", "Double", true, 100));
+        reservationService.addReservation(new Reservation("Rate Guest", room, today, today.plusDays(1), true));
+        NightlyRate rate = new NightlyRate();
+        rate.setRoomId(room.getId());
+        rate.setFirstNight(today);
+        rate.setLastNight(today);
+        rate.setPriceCents(17_550);
+        rate = pricingService.addRate(rate);
+        assertEquals(start.getRevenueToday() + 175.5, dashboardStatsService.getStats().getRevenueToday(), 0.001);
+
+        // Still the rate, not the list price, after the room changes
+        room.setAvailable(false);
+        hotelRoomService.updateRoom(room);
+        assertEquals(start.getRevenueToday() + 175.5, dashboardStatsService.getStats().getRevenueToday(), 0.001);
+        assertMatchesDatabase();
+
+        pricingService.deleteRate(rate.getId());
+        assertEquals(start.getRevenueToday() + 100, dashboardStatsService.getStats().getRevenueToday(), 0.001);
+    }
+
+    private void assertMatchesDatabase() {
+        DashboardStats live = dashboardStatsService.getStats();
+        dashboardStatsService.reconcile();
+        DashboardStats reloaded = dashboardStatsService.getStats();
+        assertEquals(reloaded.getTotalRooms(), live.getTotalRooms());
+        assertEquals(reloaded.getAvailableRooms(), live.getAvailableRooms());
+        assertEquals(reloaded.getOccupiedRooms(), live.getOccupiedRooms());
+        assertEquals(reloaded.getRevenueToday(), live.getRevenueToday(), 0.001);
+        assertEquals(reloaded.getTotalReservations(), live.getTotalReservations());
+        assertEquals(reloaded.getActiveReservations(), live.getActiveReservations());
+    }
+}
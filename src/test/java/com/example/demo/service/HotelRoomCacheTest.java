@@ -0,0 +1,105 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class HotelRoomCacheTest {
+
+    @Autowired
+    private HotelRoomService hotelRoomService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void cachedRoomLookupsDoNotQueryTheDatabase() {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("L2-1", "Suite", true, 300));
+        hotelRoomService.getRoomByNumber("L2-1");
+        hotelRoomService.getAllRooms();
+
+        statistics.clear();
+        assertEquals(300, hotelRoomService.getRoomByNumber("L2-1").orElseThrow().getPricePerNight());
+        assertEquals(room.getId(), hotelRoomService.getRoomById(room.getId()).orElseThrow().getId());
+        assertTrue(hotelRoomService.getAllRooms().stream().anyMatch(r -> r.getRoomNumber().equals("L2-1")));
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void updatesAndDeletesReachTheCache() {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("L2-2", "Double", true, 120));
+        hotelRoomService.getRoomByNumber("L2-2");
+        hotelRoomService.getAllRooms();
+
+        HotelRoom changed = new HotelRoom("L2-2B", "Double", true, 150);
+        changed.setId(room.getId());
+        hotelRoomService.updateRoom(changed);
+
+        assertEquals(150, hotelRoomService.getRoomById(room.getId()).orElseThrow().getPricePerNight());
+        assertEquals(150, hotelRoomService.getRoomByNumber("L2-2B").orElseThrow().getPricePerNight());
+        assertTrue(hotelRoomService.getRoomByNumber("L2-2").isEmpty());
+        assertTrue(hotelRoomService.getAllRooms().stream().anyMatch(r -> r.getRoomNumber().equals("L2-2B")));
+
+        hotelRoomService.deleteRoom(room.getId());
+
+        assertTrue(hotelRoomService.getRoomById(room.getId()).isEmpty());
+        assertTrue(hotelRoomService.getRoomByNumber("L2-2B").isEmpty());
+        assertTrue(hotelRoomService.getAllRooms().stream().noneMatch(r -> r.getId().equals(room.getId())));
+    }
+
+    // Every write queues a catalog rebuild, whose findAll reads the rooms on another thread while
+    // the room is deleted and its number taken again
+    @Test
+    void numberOfADeletedRoomFindsTheRoomThatTookItOver() {
+        for (int i = 0; i < 30; i++) {
+            String number = "L2-4-" + i;
+            HotelRoom deleted = hotelRoomService.addRoom(new HotelRoom(number, "Single", true, 70));
+            hotelRoomService.getRoomByNumber(number);
+            hotelRoomService.deleteRoom(deleted.getId());
+            HotelRoom successor = hotelRoomService.addRoom(new HotelRoom(number, "Suite", true, 210));
+
+            assertEquals(successor.getId(), hotelRoomService.getRoomByNumber(number).orElseThrow().getId());
+        }
+    }
+
+    @Test
+    void cancellingAReservationMakesTheCachedRoomAvailable() {
+        HotelRoom room = hotelRoomService.addRoom(new HotelRoom("L2-3", "Single", false, 80));
+        Reservation reservation = reservationService.addReservation(
+                new Reservation("Cache Guest", room, LocalDate.of(2033, 3, 1), LocalDate.of(2033, 3, 4), true));
+        assertFalse(hotelRoomService.getRoomByNumber("L2-3").orElseThrow().isAvailable());
+        assertTrue(hotelRoomService.getAvailableRooms().stream().noneMatch(r -> r.getId().equals(room.getId())));
+
+        reservationService.deleteReservation(reservation.getId());
+
+        assertTrue(hotelRoomService.getRoomById(room.getId()).orElseThrow().isAvailable());
+        assertTrue(hotelRoomService.getRoomByNumber("L2-3").orElseThrow().isAvailable());
+        assertTrue(hotelRoomService.getAvailableRooms().stream().anyMatch(r -> r.getId().equals(room.getId())));
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.entity.RoomNight;
+import com.example.demo.exception.ReservationConflictException;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.repository.ReservationRepository;
+import com.example.demo.repository.RoomNightRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest
+class ReservationAdmissionConcurrencyTest {
+
+    private static final int ROOMS = 8;
+    private static final int BOOKINGS = 4000;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private RoomNightRepository roomNightRepository;
+
+    @Autowired
+    private RoomAvailabilityIndex availabilityIndex;
+
+    @Test
+    void parallelBookingsNeverDoubleBookARoom() throws Exception {
+        List<HotelRoom> rooms = new ArrayList<>();
+        for (int i = 0; i < ROOMS; i++) {
+            rooms.add(hotelRoomRepository.save(new HotelRoom("S-" + i, "Standard", true, 100)));
+        }
+        LocalDate start = LocalDate.of(2031, 1, 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BOOKINGS; i++) {
+            results.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                HotelRoom room = rooms.get(random.nextInt(ROOMS));
+                LocalDate checkIn = start.plusDays(random.nextInt(120));
+                LocalDate checkOut = checkIn.plusDays(1 + random.nextInt(5));
+                go.await();
+                return reservationService.reserveIfAvailable(
+                        new Reservation("guest", room, checkIn, checkOut, false)).isPresent();
+            }));
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+        long accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                accepted++;
+            }
+        }
+        assertTrue(accepted > 0);
+        assertNoOverlaps(2031, accepted);
+    }
+
+    // Simulates several app instances: no shared JVM lock, no read before the write
+    @Test
+    void databaseRejectsOverlapsWithoutTheJvmLock() throws Exception {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("DB-1", "Suite", true, 300));
+        LocalDate start = LocalDate.of(2032, 1, 1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            results.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                LocalDate checkIn = start.plusDays(random.nextInt(30));
+                LocalDate checkOut = checkIn.plusDays(random.nextInt(4));
+                go.await();
+                try {
+                    reservationService.addReservation(new Reservation("guest", room, checkIn, checkOut, false));
+                    return true;
+                } catch (ReservationConflictException e) {
+                    return false;
+                }
+            }));
+        }
+        go.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES));
+
+        long accepted = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                accepted++;
+            }
+        }
+        assertTrue(accepted > 0);
+        assertNoOverlaps(2032, accepted);
+    }
+
+    // Booked by another instance, so the index still has the nights free until the room_night key refuses them
+    @Test
+    void nightsTakenElsewhereAreReloadedIntoTheIndex() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("DB-2", "Suite", true, 300));
+        LocalDate checkIn = LocalDate.of(2033, 6, 1);
+        Reservation elsewhere = reservationRepository.save(new Reservation("guest", room, checkIn, checkIn.plusDays(2), false));
+        roomNightRepository.saveAll(RoomNight.coveringStay(elsewhere));
+        assertTrue(availabilityIndex.isAvailable(room.getId(), checkIn, checkIn.plusDays(2)));
+
+        assertTrue(reservationService.reserveIfAvailable(
+                new Reservation("guest", room, checkIn.plusDays(1), checkIn.plusDays(3), false)).isEmpty());
+
+        assertFalse(availabilityIndex.isAvailable(room.getId(), checkIn, checkIn));
+        assertTrue(availabilityIndex.isAvailable(room.getId(), checkIn.plusDays(3), checkIn.plusDays(3)));
+    }
+
+    private void assertNoOverlaps(int year, long expectedCount) {
+        List<Reservation> stored = reservationRepository.findAll().stream()
+                .filter(res -> res.getCheckInDate().getYear() == year)
+                .toList();
+        assertEquals(expectedCount, stored.size());
+
+        Map<Long, List<Reservation>> byRoom = stored.stream()
+                .collect(Collectors.groupingBy(res -> res.getRoom().getId()));
+        byRoom.forEach((roomId, stays) -> {
+            for (int i = 0; i < stays.size(); i++) {
+                for (int j = i + 1; j < stays.size(); j++) {
+                    Reservation a = stays.get(i);
+                    Reservation b = stays.get(j);
+                    if (!a.getCheckOutDate().isBefore(b.getCheckInDate()) && !b.getCheckOutDate().isBefore(a.getCheckInDate())) {
+                        fail("Room " + roomId + " double-booked by " + a + " and " + b);
+                    }
+                }
+            }
+        });
+    }
+}
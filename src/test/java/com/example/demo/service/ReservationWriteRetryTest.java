@@ -0,0 +1,106 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.ReservationDTO;
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.entity.RoomNight;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.repository.ReservationRepository;
+import com.example.demo.repository.RoomNightRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockingDetails;
+
+// The room night insert stands in for the statement that hits a deadlock or lock timeout
+@SpringBootTest
+class ReservationWriteRetryTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @SpyBean
+    private RoomNightRepository roomNightRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void retriedInsertStoresTheSameReservationOnce() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("WR-1", "Double", true, 100));
+        // The spy's default answer forwards to the real repository
+        Answer<?> repository = mockingDetails(roomNightRepository).getMockCreationSettings().getDefaultAnswer();
+        doThrow(new CannotAcquireLockException("deadlock")).doAnswer(repository)
+                .when(roomNightRepository).saveAllAndFlush(anyList());
+
+        Reservation reservation = new Reservation("Retry Guest", room,
+                LocalDate.of(2039, 1, 10), LocalDate.of(2039, 1, 12), false);
+        Reservation saved = reservationService.addReservation(reservation);
+
+        assertSame(reservation, saved);
+        assertEquals(1, reservationService.getReservationsByRoomId(room.getId()).size());
+        assertEquals(saved.getId(), reservationService.getReservationsByRoomId(room.getId()).get(0).getId());
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "select count(*) from room_night where reservation_id = ?", Integer.class, saved.getId()));
+    }
+
+    @Test
+    void givingUpLeavesANewReservationWithoutAnId() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("WR-2", "Double", true, 100));
+        doThrow(new CannotAcquireLockException("deadlock"))
+                .when(roomNightRepository).saveAllAndFlush(anyList());
+
+        Reservation reservation = new Reservation("Unlucky Guest", room,
+                LocalDate.of(2039, 2, 10), LocalDate.of(2039, 2, 12), false);
+        assertThrows(CannotAcquireLockException.class, () -> reservationService.addReservation(reservation));
+
+        assertNull(reservation.getId());
+        assertEquals(0, reservationRepository.findByRoomId(room.getId()).size());
+    }
+
+    // Nights taken by another instance, which this instance's index has not seen: the batch insert
+    // fails as a whole and every stay is retried on its own
+    @Test
+    void batchFallsBackToSingleInsertsWhenTheNightsAreTaken() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("WR-3", "Suite", true, 200));
+        Reservation elsewhere = reservationRepository.save(new Reservation("Other Instance", room,
+                LocalDate.of(2039, 3, 1), LocalDate.of(2039, 3, 3), false));
+        roomNightRepository.saveAllAndFlush(RoomNight.coveringStay(elsewhere));
+
+        Reservation taken = new Reservation("Group Guest", room,
+                LocalDate.of(2039, 3, 2), LocalDate.of(2039, 3, 4), false);
+        Reservation free = new Reservation("Group Guest", room,
+                LocalDate.of(2039, 3, 10), LocalDate.of(2039, 3, 11), false);
+        List<Optional<Reservation>> results = reservationService.reserveAllIfAvailable(List.of(taken, free));
+
+        assertTrue(results.get(0).isEmpty());
+        assertNull(taken.getId());
+        assertSame(free, results.get(1).orElseThrow());
+        assertEquals(List.of(elsewhere.getId(), free.getId()), reservationService.getReservationsByRoomId(room.getId())
+                .stream().map(ReservationDTO::getId).sorted().toList());
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "select count(*) from room_night where reservation_id = ?", Integer.class, free.getId()));
+    }
+}
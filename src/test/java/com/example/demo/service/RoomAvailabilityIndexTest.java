@@ -0,0 +1,144 @@
+package com.example.demo.service;
+
+import com.example.demo.entity.HotelRoom;
+import com.example.demo.entity.Reservation;
+import com.example.demo.repository.HotelRoomRepository;
+import com.example.demo.repository.ReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+@SpringBootTest
+class RoomAvailabilityIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2038, 5, 10);
+
+    @Autowired
+    private RoomAvailabilityIndex index;
+
+    @Autowired
+    private HotelRoomRepository hotelRoomRepository;
+
+    @SpyBean
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void bothEndsOfAStayBlockTheRoom() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("AI-1", "Double", true, 100));
+        index.put(reservation(900_001L, room, DAY, DAY.plusDays(3)));
+
+        assertFalse(index.isAvailable(room.getId(), DAY.plusDays(1), DAY.plusDays(2)));
+        assertFalse(index.isAvailable(room.getId(), DAY.minusDays(5), DAY.plusDays(10)));
+        // Check-in and check-out day are both booked, so a same-day turnover overlaps
+        assertFalse(index.isAvailable(room.getId(), DAY.plusDays(3), DAY.plusDays(5)));
+        assertFalse(index.isAvailable(room.getId(), DAY.minusDays(2), DAY));
+        assertTrue(index.isAvailable(room.getId(), DAY.plusDays(4), DAY.plusDays(6)));
+        assertTrue(index.isAvailable(room.getId(), DAY.minusDays(3), DAY.minusDays(1)));
+
+        // A long early stay still blocks days after later, shorter ones
+        index.put(reservation(900_002L, room, DAY.plusDays(20), DAY.plusDays(40)));
+        index.put(reservation(900_003L, room, DAY.plusDays(21), DAY.plusDays(22)));
+        assertFalse(index.isAvailable(room.getId(), DAY.plusDays(30), DAY.plusDays(31)));
+
+        index.remove(900_002L);
+        assertTrue(index.isAvailable(room.getId(), DAY.plusDays(30), DAY.plusDays(31)));
+        assertFalse(index.isAvailable(room.getId(), DAY.plusDays(22), DAY.plusDays(23)));
+    }
+
+    @Test
+    void movingAStayFreesOnlyTheNightsItLeft() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("AI-2", "Double", true, 100));
+        HotelRoom other = hotelRoomRepository.save(new HotelRoom("AI-3", "Double", true, 100));
+        Reservation stay = reservation(900_011L, room, DAY, DAY.plusDays(2));
+        index.put(stay);
+
+        stay.setCheckInDate(DAY.plusDays(1));
+        stay.setCheckOutDate(DAY.plusDays(4));
+        index.put(stay);
+        assertTrue(index.isAvailable(room.getId(), DAY.minusDays(1), DAY));
+        assertFalse(index.isAvailable(room.getId(), DAY.plusDays(4), DAY.plusDays(4)));
+
+        stay.setRoom(other);
+        index.put(stay);
+        assertTrue(index.isAvailable(room.getId(), DAY, DAY.plusDays(10)));
+        assertFalse(index.isAvailable(other.getId(), DAY.plusDays(2), DAY.plusDays(2)));
+    }
+
+    // Every version of the stay covers DAY, so no check may ever find DAY free while it moves
+    @Test
+    void aMovingStayNeverLooksFree() throws InterruptedException {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("AI-4", "Single", true, 80));
+        Reservation stay = reservation(900_021L, room, DAY, DAY.plusDays(1));
+        index.put(stay);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread mover = new Thread(() -> {
+            for (int i = 0; running.get(); i++) {
+                stay.setCheckInDate(DAY.minusDays(i % 3));
+                index.put(stay);
+            }
+        });
+        mover.start();
+        try {
+            for (int i = 0; i < 200_000; i++) {
+                assertFalse(index.isAvailable(room.getId(), DAY, DAY));
+            }
+        } finally {
+            running.set(false);
+            mover.join();
+        }
+    }
+
+    @Test
+    void rebuildLoadsTheStoredStays() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("AI-5", "Suite", true, 300));
+        Reservation stored = reservationRepository.save(
+                new Reservation("Index Guest", room, DAY, DAY.plusDays(2), false));
+        // Written behind the index's back, so only a rebuild knows about it
+        assertTrue(index.isAvailable(room.getId(), DAY, DAY));
+        index.put(reservation(900_031L, room, DAY.plusDays(5), DAY.plusDays(6)));
+
+        index.rebuild();
+
+        assertFalse(index.isAvailable(room.getId(), DAY.plusDays(1), DAY.plusDays(1)));
+        assertTrue(index.isAvailable(room.getId(), DAY.plusDays(5), DAY.plusDays(6)));
+        reservationRepository.delete(stored);
+        index.remove(stored.getId());
+    }
+
+    // A booking saved while the rebuild reads must survive the swap, whether the read saw it or not
+    @Test
+    void changesMadeDuringARebuildAreKept() {
+        HotelRoom room = hotelRoomRepository.save(new HotelRoom("AI-6", "Suite", true, 300));
+        index.put(reservation(900_041L, room, DAY.plusDays(10), DAY.plusDays(11)));
+        Answer<?> repository = mockingDetails(reservationRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object stays = repository.answer(invocation);
+            index.put(reservation(900_042L, room, DAY, DAY.plusDays(1)));
+            index.remove(900_041L);
+            return stays;
+        }).when(reservationRepository).findAllStays();
+
+        index.rebuild();
+
+        assertFalse(index.isAvailable(room.getId(), DAY, DAY));
+        assertTrue(index.isAvailable(room.getId(), DAY.plusDays(10), DAY.plusDays(11)));
+        index.remove(900_042L);
+    }
+
+    private static Reservation reservation(Long id, HotelRoom room, LocalDate checkIn, LocalDate checkOut) {
+        Reservation reservation = new Reservation("Index Guest", room, checkIn, checkOut, false);
+        reservation.setId(id);
+        return reservation;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.ui;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class EtagCacheTest {
+
+    private static final String URL = "http://localhost:8080/api/rooms";
+
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        EtagCache.clear();
+        restTemplate = EtagCache.restTemplate();
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void notModifiedResponsesReuseTheCachedBody() {
+        HttpHeaders etag = new HttpHeaders();
+        etag.setETag("\"rooms-1\"");
+        server.expect(requestTo(URL)).andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("[{\"id\":1}]", MediaType.APPLICATION_JSON).headers(etag));
+        server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"rooms-1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        assertEquals("[{\"id\":1}]", restTemplate.getForObject(URL, String.class));
+        assertEquals("[{\"id\":1}]", restTemplate.getForObject(URL, String.class));
+        server.verify();
+    }
+
+    @Test
+    void changedResourceReplacesTheCachedBody() {
+        HttpHeaders first = new HttpHeaders();
+        first.setETag("\"rooms-1\"");
+        HttpHeaders second = new HttpHeaders();
+        second.setETag("\"rooms-2\"");
+        server.expect(requestTo(URL))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON).headers(first));
+        server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"rooms-1\""))
+                .andRespond(withSuccess("[{\"id\":2}]", MediaType.APPLICATION_JSON).headers(second));
+        server.expect(requestTo(URL)).andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"rooms-2\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        assertEquals("[]", restTemplate.getForObject(URL, String.class));
+        assertEquals("[{\"id\":2}]", restTemplate.getForObject(URL, String.class));
+        assertEquals("[{\"id\":2}]", restTemplate.getForObject(URL, String.class));
+        server.verify();
+    }
+}